@@ -0,0 +1,76 @@
+package com.edition.benchmark;
+
+import com.edition.EditionApplication;
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Démarrage de l'application pour les benchmarks : base H2 en mémoire propre à chaque
+ * fork, port aléatoire, insertions par lots.
+ */
+final class BenchmarkApplication {
+    
+    static final String JWT_SECRET = "YmVuY2htYXJrLXNlY3JldC1hdC1sZWFzdC0yNTYtYml0cy1sb25nLWZvci1oczI1Ng";
+    
+    private BenchmarkApplication() {
+    }
+    
+    static ConfigurableApplicationContext start(String... properties) {
+        String[] defaults = {
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                "--spring.jpa.properties.hibernate.order_inserts=true",
+                "--jwt.secret=" + JWT_SECRET,
+                "--jwt.expiration=86400000",
+                "--logging.level.root=WARN"
+        };
+        // Une propriété passée deux fois serait jointe par une virgule : l'argument remplace le défaut
+        Set<String> overridden = Stream.of(properties).map(BenchmarkApplication::key).collect(Collectors.toSet());
+        String[] args = Stream.concat(
+                Stream.of(defaults).filter(property -> !overridden.contains(key(property))),
+                Stream.of(properties)).toArray(String[]::new);
+        return SpringApplication.run(EditionApplication.class, args);
+    }
+    
+    private static String key(String property) {
+        int equals = property.indexOf('=');
+        return equals < 0 ? property : property.substring(0, equals);
+    }
+    
+    /**
+     * Livres synthétiques, déterministes : ISBN, auteur, prix, année et catégorie
+     * dérivés du numéro.
+     */
+    static List<Book> books(int from, int count) {
+        BookCategory[] categories = BookCategory.values();
+        List<Book> books = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            books.add(new Book(
+                    null,
+                    "Titre " + i + " " + WORDS[i % WORDS.length],
+                    "Auteur " + (i % 997),
+                    String.format("978-9%09d", i),
+                    5.0 + (i % 4000) / 100.0,
+                    "Description du livre " + i + ", " + WORDS[(i / 7) % WORDS.length] + " et "
+                            + WORDS[(i / 13) % WORDS.length] + ".",
+                    null,
+                    1500 + i % 525,
+                    categories[i % categories.length]));
+        }
+        return books;
+    }
+    
+    private static final String[] WORDS = {
+            "mer", "nuit", "jardin", "voyage", "mémoire", "hiver", "lumière", "silence",
+            "guerre", "amour", "ville", "forêt", "rivière", "exil", "enfance", "théâtre"
+    };
+}
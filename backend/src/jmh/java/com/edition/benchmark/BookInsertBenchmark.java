@@ -0,0 +1,92 @@
+package com.edition.benchmark;
+
+import com.edition.model.Book;
+import com.edition.repository.BookRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insertion de {@code rows} livres par {@link BookRepository#persistAll}, en lots de
+ * {@code chunkSize} chacun dans sa transaction, comme l'import en masse. {@code batchSize=0}
+ * désactive les lots JDBC. {@code url} choisit la base : H2 en mémoire par défaut, où il n'y a
+ * pas d'aller-retour réseau à économiser ; H2 en TCP ou MariaDB pour mesurer ce gain :
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="BookInsertBenchmark -p url=jdbc:h2:tcp://localhost/~/bench"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BookInsertBenchmark {
+    
+    @Param({"0", "50"})
+    public int batchSize;
+    
+    @Param({"100000"})
+    public int rows;
+    
+    @Param({"1000"})
+    public int chunkSize;
+    
+    @Param({"jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1"})
+    public String url;
+    
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<List<Book>> chunks;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "--spring.datasource.url=" + url,
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                "--demo-data.enabled=false",
+                "--books.cache.warm-up=false");
+        bookRepository = context.getBean(BookRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+    
+    @Setup(Level.Iteration)
+    public void emptyCatalog() {
+        bookRepository.deleteAllInBatch();
+        chunks = new ArrayList<>();
+        for (int from = 0; from < rows; from += chunkSize) {
+            chunks.add(BenchmarkApplication.books(from, Math.min(chunkSize, rows - from)));
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bookRepository.deleteAllInBatch();
+        context.close();
+    }
+    
+    @Benchmark
+    public int insertChunks() {
+        for (List<Book> chunk : chunks) {
+            transactionTemplate.executeWithoutResult(status -> bookRepository.persistAll(chunk));
+        }
+        return chunks.size();
+    }
+}
@@ -0,0 +1,108 @@
+package com.edition.benchmark;
+
+import com.edition.dto.BookFilter;
+import com.edition.dto.BookSummary;
+import com.edition.dto.CursorPage;
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+import com.edition.repository.BookRepository;
+import com.edition.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requêtes de {@link BookService} sur un catalogue H2 de {@code catalogSize} livres.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BookServiceBenchmark {
+    
+    private static final int SEED_CHUNK = 5000;
+    
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+    
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private long minId;
+    private long maxId;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--books.cache.warm-up=false");
+        bookService = context.getBean(BookService.class);
+        BookRepository bookRepository = context.getBean(BookRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        
+        for (int from = 0; from < catalogSize; from += SEED_CHUNK) {
+            List<Book> chunk = BenchmarkApplication.books(from, Math.min(SEED_CHUNK, catalogSize - from));
+            transactionTemplate.executeWithoutResult(status -> bookRepository.persistAll(chunk));
+        }
+        // Index de recherche reconstruit sur le catalogue complet
+        bookService.warmUp();
+        
+        CursorPage<BookSummary> first = bookService.findPage(new BookFilter(), null, 1, "id", "asc");
+        CursorPage<BookSummary> last = bookService.findPage(new BookFilter(), null, 1, "id", "desc");
+        minId = first.getContent().get(0).getId();
+        maxId = last.getContent().get(0).getId();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Optional<Book> findById() {
+        return bookService.findById(ThreadLocalRandom.current().nextLong(minId, maxId + 1));
+    }
+    
+    @Benchmark
+    public CursorPage<BookSummary> firstPageByTitle() {
+        return bookService.findPage(new BookFilter(), null, 20, "title", "asc");
+    }
+    
+    @Benchmark
+    public CursorPage<BookSummary> pageByCategoryAndPrice() {
+        BookFilter filter = new BookFilter();
+        filter.setCategory(BookCategory.ROMAN);
+        filter.setMinPrice(10.0);
+        filter.setMaxPrice(20.0);
+        return bookService.findPage(filter, null, 20, "price", "asc");
+    }
+    
+    @Benchmark
+    public List<Book> searchTwoTerms() {
+        return bookService.search("voyage aut", 20);
+    }
+    
+    @Benchmark
+    public CursorPage<BookSummary> pageWithTextAndCategory() {
+        BookFilter filter = new BookFilter();
+        filter.setQ("jardin");
+        filter.setCategory(BookCategory.ESSAI);
+        return bookService.findPage(filter, null, 20, "title", "asc");
+    }
+}
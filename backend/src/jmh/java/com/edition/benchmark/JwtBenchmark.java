@@ -0,0 +1,87 @@
+package com.edition.benchmark;
+
+import com.edition.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Génération et vérification des tokens par {@link JwtUtils}, avec et sans le cache
+ * des tokens déjà vérifiés.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    
+    private static final int DISTINCT_TOKENS = 4096;
+    
+    private JwtUtils cached;
+    private JwtUtils uncached;
+    private UserDetails admin;
+    private String adminToken;
+    private String[] tokens;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        cached = jwtUtils(10_000);
+        uncached = jwtUtils(0);
+        admin = user("admin", "ROLE_ADMIN");
+        adminToken = cached.generateToken(admin);
+        tokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            tokens[i] = uncached.generateToken(user("user" + i, "ROLE_USER"));
+        }
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken(admin);
+    }
+    
+    /** Token déjà vérifié : réponse du cache. */
+    @Benchmark
+    public Optional<Claims> verifyCached() {
+        return cached.verify(adminToken);
+    }
+    
+    /** Analyse et vérification complètes de la signature HMAC à chaque appel. */
+    @Benchmark
+    public Optional<Claims> verifyUncached() {
+        next = (next + 1) % DISTINCT_TOKENS;
+        return uncached.verify(tokens[next]);
+    }
+    
+    static JwtUtils jwtUtils(long verifiedCacheSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", BenchmarkApplication.JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 86_400_000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", verifiedCacheSize);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+        return jwtUtils;
+    }
+    
+    private static UserDetails user(String username, String role) {
+        return new User(username, "", List.of(new SimpleGrantedAuthority(role)));
+    }
+}
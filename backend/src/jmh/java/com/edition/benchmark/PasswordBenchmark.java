@@ -0,0 +1,48 @@
+package com.edition.benchmark;
+
+import com.edition.config.PasswordConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût du hachage BCrypt de {@link PasswordConfig} : inscription ({@code encode}) et
+ * connexion ({@code matches}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordBenchmark {
+    
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+    
+    @Setup
+    public void setUp() {
+        passwordEncoder = new PasswordConfig().passwordEncoder();
+        hash = passwordEncoder.encode("admin123");
+    }
+    
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode("admin123");
+    }
+    
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches("admin123", hash);
+    }
+}
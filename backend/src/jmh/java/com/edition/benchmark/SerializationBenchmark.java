@@ -0,0 +1,93 @@
+package com.edition.benchmark;
+
+import com.edition.model.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sérialisation de listes de {@link Book} en JSON, CBOR et Smile, avec des {@link ObjectMapper}
+ * configurés comme ceux de Spring MVC ; {@code serializeGzip} ajoute le coût de la compression
+ * appliquée par Tomcat. Les tailles (brute et gzip) de chaque format sont affichées au démarrage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    
+    @Param({"20", "1000", "100000"})
+    public int listSize;
+    
+    @Param({"json", "cbor", "smile"})
+    public String format;
+    
+    private ObjectMapper objectMapper;
+    private List<Book> books;
+    private byte[] serialized;
+    
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        books = BenchmarkApplication.books(0, listSize);
+        long id = 1;
+        for (Book book : books) {
+            book.setId(id++);
+            book.setVersion(0L);
+        }
+        serialized = objectMapper.writeValueAsBytes(books);
+        System.out.printf("%n%s, %d livres : %d octets, %d octets compressés%n",
+                format, listSize, serialized.length, gzip(serialized).length);
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(books);
+    }
+    
+    @Benchmark
+    public byte[] serializeGzip() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, books);
+        }
+        return bytes.toByteArray();
+    }
+    
+    @Benchmark
+    public Book[] deserialize() throws Exception {
+        return objectMapper.readValue(serialized, Book[].class);
+    }
+    
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(data);
+        }
+        return bytes.toByteArray();
+    }
+}
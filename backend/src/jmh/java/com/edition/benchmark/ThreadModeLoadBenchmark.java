@@ -0,0 +1,114 @@
+package com.edition.benchmark;
+
+import com.edition.model.Book;
+import com.edition.repository.BookRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Charge HTTP concurrente sur l'application démarrée en threads de plateforme puis en threads
+ * virtuels ({@code virtualThreads}), avec la limite {@code db.gate.*} qui suit ce mode :
+ * une page filtrée du catalogue (lue en base, hors cache) et une connexion (BCrypt sur le pool
+ * dédié). Le nombre de clients simultanés est celui des threads JMH ({@code -t}), au-delà des
+ * 200 threads Tomcat par défaut.
+ * <p>
+ * Client et serveur partagent la machine et la JVM : les écarts entre modes comptent, pas les
+ * valeurs absolues. Pour les percentiles de latence : {@code -bm sample}.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ThreadModeLoadBenchmark -t 400"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ThreadModeLoadBenchmark {
+    
+    private static final int SEED_CHUNK = 5000;
+    private static final String LOGIN = "{\"username\":\"user\",\"password\":\"user123\"}";
+    
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+    
+    @Param({"100000"})
+    public int catalogSize;
+    
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--books.cache.warm-up=false",
+                // Ni le limiteur de connexions (429) ni la file de BCrypt (503) ne doivent répondre à sa place
+                "--security.auth-throttle.ip.capacity=1000000000",
+                "--security.auth-throttle.username.capacity=1000000000",
+                "--security.password-hashing.queue-capacity=10000");
+        BookRepository bookRepository = context.getBean(BookRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        for (int from = 0; from < catalogSize; from += SEED_CHUNK) {
+            List<Book> chunk = BenchmarkApplication.books(from, Math.min(SEED_CHUNK, catalogSize - from));
+            transactionTemplate.executeWithoutResult(status -> bookRepository.persistAll(chunk));
+        }
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+    
+    @Benchmark
+    public int filteredPage() throws IOException, InterruptedException {
+        double minPrice = ThreadLocalRandom.current().nextInt(5, 40);
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/books?size=20&sort=price&category=ROMAN&minPrice="
+                + minPrice + "&maxPrice=" + (minPrice + 2))).GET());
+    }
+    
+    @Benchmark
+    public int login() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(LOGIN)));
+    }
+    
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,75 @@
+package com.edition.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Place un {@link ConcurrencyLimitedDataSource} devant le pool Hikari de Spring Boot (bean
+ * {@code dataSource}) quand {@code db.gate.enabled} est vrai (par défaut : en mode threads
+ * virtuels). Le nombre de jetons vaut par défaut la taille maximale du pool.
+ * Avec les lectures sur réplicas, c'est {@link ReplicaRoutingConfig} qui limite ainsi le pool
+ * du primaire et ceux des réplicas ; les beans Hikari y restent tels quels.
+ * Jauges : {@code db.gate.permits.available}, {@code db.gate.waiting} (tag {@code pool}).
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "db.gate.enabled", havingValue = "true")
+public class DatabaseGateConfig {
+    
+    /** Taille du pool retenue par Hikari quand elle n'est pas configurée. */
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+    
+    @Bean
+    public static BeanPostProcessor databaseGate(Environment environment,
+                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                return gate(hikari, "primary",
+                        environment.getProperty("db.gate.max-concurrency", Integer.class),
+                        environment.getProperty("db.gate.acquire-timeout", Duration.class),
+                        meterRegistry.getIfAvailable());
+            }
+        };
+    }
+    
+    /**
+     * @param maxConcurrency null : la taille maximale du pool
+     * @param acquireTimeout null : l'attente de connexion du pool ({@code connection-timeout})
+     * @param meterRegistry  null : pas de jauges
+     */
+    static ConcurrencyLimitedDataSource gate(HikariDataSource hikari, String pool, Integer maxConcurrency,
+                                             Duration acquireTimeout, MeterRegistry meterRegistry) {
+        // La taille du pool n'est résolue qu'au démarrage de Hikari (-1 jusque-là)
+        int poolSize = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+        int permits = maxConcurrency != null ? maxConcurrency : poolSize;
+        Duration timeout = acquireTimeout != null ? acquireTimeout : Duration.ofMillis(hikari.getConnectionTimeout());
+        ConcurrencyLimitedDataSource gate = new ConcurrencyLimitedDataSource(hikari, permits, timeout);
+        if (meterRegistry != null) {
+            Gauge.builder("db.gate.permits.available", gate, ConcurrencyLimitedDataSource::getAvailablePermits)
+                    .description("Connexions encore disponibles derrière la limite de concurrence")
+                    .tag("pool", pool)
+                    .register(meterRegistry);
+            Gauge.builder("db.gate.waiting", gate, ConcurrencyLimitedDataSource::getQueueLength)
+                    .description("Threads en attente d'une connexion")
+                    .tag("pool", pool)
+                    .register(meterRegistry);
+        }
+        log.info("Accès à la base ({}) limité à {} connexions simultanées (attente max {})",
+                pool, permits, timeout);
+        return gate;
+    }
+}
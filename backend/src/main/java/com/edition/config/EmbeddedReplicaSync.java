@@ -0,0 +1,150 @@
+package com.edition.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Réplication simulée pour le profil {@code replicas} : les réplicas sont des bases H2 en
+ * mémoire distinctes du primaire, qui reçoivent son schéma à la première copie puis toutes
+ * ses données toutes les {@code db.replicas.embedded-sync-interval}, en une transaction par
+ * réplica. Une lecture aiguillée vers un réplica a donc jusqu'à un intervalle de retard, ce
+ * qui rend visibles l'aiguillage et la lecture de ses propres écritures. Développement seulement.
+ * <p>
+ * Une copie est faite au démarrage, avant les initialiseurs, puis avant le chargement des
+ * index en mémoire, pour qu'ils voient les données de démonstration.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "db.replicas.embedded-sync-interval")
+public class EmbeddedReplicaSync {
+    
+    private final DataSource primary;
+    private final List<String> urls;
+    private final String username;
+    private final String password;
+    private final Set<String> initialized = new HashSet<>();
+    
+    public EmbeddedReplicaSync(@Qualifier("primaryDataSource") DataSource primary,
+                               DataSourceProperties properties,
+                               @Value("${db.replicas.urls}") List<String> urls) {
+        this.primary = primary;
+        this.urls = urls.stream().filter(url -> !url.isBlank()).map(String::trim).toList();
+        this.username = properties.determineUsername();
+        this.password = properties.determinePassword();
+    }
+    
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStarted() {
+        sync();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onReady() {
+        sync();
+    }
+    
+    @Scheduled(fixedDelayString = "${db.replicas.embedded-sync-interval}",
+            initialDelayString = "${db.replicas.embedded-sync-interval}")
+    public synchronized void sync() {
+        for (String url : urls) {
+            try (Connection source = primary.getConnection();
+                 Connection target = DriverManager.getConnection(url, username, password)) {
+                if (!initialized.contains(url)) {
+                    copySchema(source, target);
+                    initialized.add(url);
+                }
+                copyData(source, target);
+            } catch (SQLException e) {
+                // Un réplica injoignable est laissé de côté : l'aiguillage l'écarte de lui-même
+                log.debug("Réplica {} non copié: {}", url, e.getMessage());
+            }
+        }
+    }
+    
+    private static void copySchema(Connection source, Connection target) throws SQLException {
+        try (Statement script = source.createStatement();
+             ResultSet statements = script.executeQuery("script nodata nopasswords nosettings");
+             Statement ddl = target.createStatement()) {
+            while (statements.next()) {
+                String statement = statements.getString(1);
+                if (!statement.startsWith("--")) {
+                    ddl.execute(statement);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Remplace toutes les lignes du réplica par celles du primaire, lues dans une même
+     * transaction et écrites dans une même transaction.
+     */
+    private static void copyData(Connection source, Connection target) throws SQLException {
+        source.setAutoCommit(false);
+        source.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        target.setAutoCommit(false);
+        try {
+            for (String table : tables(source)) {
+                try (Statement delete = target.createStatement()) {
+                    delete.executeUpdate("delete from " + table);
+                }
+                try (Statement select = source.createStatement();
+                     ResultSet rows = select.executeQuery("select * from " + table)) {
+                    int columns = rows.getMetaData().getColumnCount();
+                    String insert = "insert into " + table + " values ("
+                            + String.join(", ", Collections.nCopies(columns, "?")) + ")";
+                    try (PreparedStatement statement = target.prepareStatement(insert)) {
+                        while (rows.next()) {
+                            for (int column = 1; column <= columns; column++) {
+                                statement.setObject(column, rows.getObject(column));
+                            }
+                            statement.addBatch();
+                        }
+                        statement.executeBatch();
+                    }
+                }
+            }
+            target.commit();
+        } catch (SQLException e) {
+            target.rollback();
+            throw e;
+        } finally {
+            source.rollback();
+        }
+    }
+    
+    private static List<String> tables(Connection connection) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("select table_name from information_schema.tables "
+                     + "where table_schema = 'PUBLIC' and table_type = 'BASE TABLE'")) {
+            while (result.next()) {
+                tables.add("\"" + result.getString(1) + "\"");
+            }
+        }
+        return tables;
+    }
+}
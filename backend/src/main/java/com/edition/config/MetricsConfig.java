@@ -0,0 +1,35 @@
+package com.edition.config;
+
+import com.edition.metrics.StatementCounter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+import java.time.Duration;
+
+/**
+ * Instrumentation de Hibernate : comptage des requêtes SQL par requête HTTP et
+ * journal des requêtes plus lentes que {@code metrics.slow-query.threshold}
+ * (logger {@code org.hibernate.SQL_SLOW}). Le décorateur de tâches, appliqué par Spring Boot
+ * à l'exécuteur des réponses asynchrones, y transmet le compteur de la requête.
+ */
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    public HibernatePropertiesCustomizer hibernateMetricsCustomizer(
+            @Value("${metrics.slow-query.threshold:200ms}") Duration slowQueryThreshold) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+            properties.put(AvailableSettings.LOG_SLOW_QUERY, slowQueryThreshold.toMillis());
+        };
+    }
+    
+    @Bean
+    public TaskDecorator statementCountingTaskDecorator() {
+        return StatementCounter::propagate;
+    }
+}
@@ -0,0 +1,142 @@
+package com.edition.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectures sur réplicas ({@code db.replicas.enabled=true}) : le pool du primaire est construit
+ * ici à partir de {@code spring.datasource.*}, un pool Hikari en lecture seule par URL de
+ * {@code db.replicas.urls}, et la source de données principale aiguille entre eux
+ * ({@link ReplicaRoutingDataSource}).
+ * <p>
+ * Avec {@code db.gate.enabled}, chaque pool est placé derrière son propre
+ * {@link ConcurrencyLimitedDataSource} : celui du primaire à {@code db.gate.max-concurrency}
+ * jetons (par défaut sa taille), ceux des réplicas à {@code db.replicas.pool-size}. Le bean
+ * {@code primaryDataSource} reste le pool Hikari, vu comme tel par les métriques de Spring Boot.
+ * <p>
+ * Métriques : {@code db.replicas.healthy}, {@code db.replicas.ejections},
+ * {@code db.routing.connections} (tag {@code target}) ; pools {@code replica-N} instrumentés
+ * comme celui du primaire ; jauges {@code db.gate.*} par pool (tag {@code pool}).
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "db.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+    
+    /**
+     * Pool du primaire, configuré comme celui de Spring Boot ({@code spring.datasource.hikari.*}).
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${db.replicas.urls}") List<String> urls,
+            @Value("${db.replicas.username:#{null}}") String username,
+            @Value("${db.replicas.password:#{null}}") String password,
+            @Value("${db.replicas.pool-size:10}") int poolSize,
+            @Value("${db.replicas.connection-timeout:PT1S}") Duration connectionTimeout,
+            @Value("${db.replicas.read-your-writes:PT2S}") Duration readYourWrites,
+            @Value("${db.replicas.lag-query:#{null}}") String lagQuery,
+            @Value("${db.replicas.max-lag:PT10S}") Duration maxLag,
+            @Value("${db.gate.enabled:false}") boolean gateEnabled,
+            @Value("${db.gate.max-concurrency:#{null}}") Integer gateMaxConcurrency,
+            @Value("${db.gate.acquire-timeout:#{null}}") Duration gateAcquireTimeout) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(url.trim());
+            pool.setDriverClassName(properties.determineDriverClassName());
+            pool.setUsername(username != null ? username : properties.determineUsername());
+            pool.setPassword(password != null ? password : properties.determinePassword());
+            pool.setMaximumPoolSize(poolSize);
+            pool.setConnectionTimeout(connectionTimeout.toMillis());
+            pool.setReadOnly(true);
+            // Un réplica absent au démarrage est écarté, il n'empêche pas l'application de démarrer
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricRegistry(meterRegistry);
+            replicas.add(new ReplicaRoutingDataSource.Replica(name, gateEnabled
+                    ? DatabaseGateConfig.gate(pool, name, null, gateAcquireTimeout, meterRegistry) : pool));
+        }
+        DataSource primary = gateEnabled
+                ? DatabaseGateConfig.gate(primaryDataSource, "primary", gateMaxConcurrency, gateAcquireTimeout,
+                        meterRegistry)
+                : primaryDataSource;
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas,
+                ReplicaRoutingConfig::requestClient, readYourWrites, connectionTimeout,
+                lagQuery == null || lagQuery.isBlank() ? null : lagQuery, maxLag);
+        
+        Gauge.builder("db.replicas.healthy", routing, ReplicaRoutingDataSource::getHealthyReplicas)
+                .description("Réplicas recevant des lectures")
+                .register(meterRegistry);
+        FunctionCounter.builder("db.replicas.ejections", routing, ReplicaRoutingDataSource::getEjections)
+                .description("Réplicas écartés (connexion refusée ou retard excessif)")
+                .register(meterRegistry);
+        FunctionCounter.builder("db.routing.connections", routing, ReplicaRoutingDataSource::getPrimaryConnections)
+                .tag("target", "primary")
+                .register(meterRegistry);
+        FunctionCounter.builder("db.routing.connections", routing, ReplicaRoutingDataSource::getReplicaConnections)
+                .tag("target", "replica")
+                .register(meterRegistry);
+        log.info("Lectures en transaction readOnly réparties sur {} réplica(s)", replicas.size());
+        return routing;
+    }
+    
+    /**
+     * Client de la requête HTTP en cours, pour la lecture de ses propres écritures :
+     * l'utilisateur authentifié, à défaut l'adresse IP ; null hors requête.
+     */
+    static String requestClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return "ip:" + attributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+    
+    /**
+     * Source de données utilisée par JPA, Flyway et JdbcTemplate.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,245 @@
+package com.edition.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Aiguillage lecture/écriture : une transaction {@code readOnly} obtient une connexion d'un
+ * réplica sain (à tour de rôle), tout le reste (écritures, accès hors transaction) le primaire.
+ * <p>
+ * Doit être placée derrière un {@code LazyConnectionDataSourceProxy} : la connexion n'est alors
+ * demandée qu'à la première requête SQL, quand le caractère lecture seule de la transaction
+ * est connu.
+ * <p>
+ * Lecture de ses propres écritures : pendant {@code readYourWrites} après la validation d'une
+ * transaction d'écriture, les lectures du même client (désigné par {@code client}) vont au
+ * primaire, le temps que les réplicas rattrapent leur retard ; celles des autres clients, et
+ * les accès sans client (tâches planifiées, démarrage), n'en sont pas affectées. Le suivi est
+ * propre à chaque instance. Un réplica qui refuse une connexion, ou dont le retard
+ * dépasse {@code maxLag}, est écarté jusqu'à ce que {@link #checkReplicas()} le trouve rétabli ;
+ * sans réplica sain, les lectures vont au primaire. Les lectures qui ne tolèrent aucun retard,
+ * quel que soit le client, passent par {@link #readFromPrimary}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends DelegatingDataSource {
+    
+    /** Présent pendant {@link #readFromPrimary} sur le thread courant. */
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+    
+    private final List<Replica> replicas;
+    private final Supplier<String> client;
+    /** Clients ayant écrit depuis moins de {@code readYourWrites}. */
+    private final Cache<String, Boolean> recentWriters;
+    private final Duration validationTimeout;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong primaryConnections = new AtomicLong();
+    private final AtomicLong replicaConnections = new AtomicLong();
+    private final AtomicLong ejections = new AtomicLong();
+    
+    /**
+     * @param client   identifiant du client de la requête en cours, ou null hors requête
+     * @param lagQuery requête renvoyant le retard du réplica en secondes (null : pas de contrôle du retard)
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, Supplier<String> client,
+                                    Duration readYourWrites, Duration validationTimeout, String lagQuery,
+                                    Duration maxLag) {
+        super(primary);
+        this.replicas = List.copyOf(replicas);
+        this.client = client;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .build();
+        this.validationTimeout = validationTimeout;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+    
+    /**
+     * Exécute {@code task} en lisant au primaire, même dans une transaction {@code readOnly} et
+     * sans rien noter pour la lecture de ses propres écritures. Sans effet sur une connexion
+     * que la transaction en cours a déjà obtenue.
+     */
+    public static <T> T readFromPrimary(Supplier<T> task) {
+        boolean outermost = PRIMARY_READS.get() == null;
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return task.get();
+        } finally {
+            if (outermost) {
+                PRIMARY_READS.remove();
+            }
+        }
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        String currentClient = client.get();
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (readOnly && PRIMARY_READS.get() == null && !recentlyWrote(currentClient)) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                if (!replica.isHealthy()) {
+                    continue;
+                }
+                try {
+                    Connection connection = replica.dataSource().getConnection();
+                    replicaConnections.incrementAndGet();
+                    return connection;
+                } catch (SQLException e) {
+                    eject(replica, e.getMessage());
+                }
+            }
+        } else if (!readOnly && currentClient != null) {
+            recordWrite(currentClient);
+        }
+        primaryConnections.incrementAndGet();
+        return super.getConnection();
+    }
+    
+    /**
+     * Vérifie chaque réplica : connexion valide et, si configuré, retard inférieur à {@code maxLag}.
+     */
+    @Scheduled(fixedDelayString = "${db.replicas.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            String problem = probe(replica);
+            if (problem != null) {
+                eject(replica, problem);
+            } else if (!replica.isHealthy()) {
+                replica.setHealthy(true);
+                log.info("Réplica {} réintégré", replica.name());
+            }
+        }
+    }
+    
+    /**
+     * Ferme les pools des réplicas, derrière leur éventuelle limite de concurrence ; celui du
+     * primaire appartient à son propre bean.
+     */
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource().isWrapperFor(AutoCloseable.class)) {
+                replica.dataSource().unwrap(AutoCloseable.class).close();
+            }
+        }
+    }
+    
+    public int getHealthyReplicas() {
+        return (int) replicas.stream().filter(Replica::isHealthy).count();
+    }
+    
+    public long getPrimaryConnections() {
+        return primaryConnections.get();
+    }
+    
+    public long getReplicaConnections() {
+        return replicaConnections.get();
+    }
+    
+    public long getEjections() {
+        return ejections.get();
+    }
+    
+    /**
+     * @return la raison d'écarter le réplica, ou null s'il est sain
+     */
+    private String probe(Replica replica) {
+        try (Connection connection = replica.dataSource().getConnection()) {
+            if (!connection.isValid((int) Math.max(1, validationTimeout.toSeconds()))) {
+                return "connexion invalide";
+            }
+            if (lagQuery == null) {
+                return null;
+            }
+            try (PreparedStatement statement = connection.prepareStatement(lagQuery);
+                 ResultSet result = statement.executeQuery()) {
+                if (!result.next() || result.getObject(1) == null) {
+                    return "réplication arrêtée";
+                }
+                long lagSeconds = result.getLong(1);
+                return lagSeconds > maxLag.toSeconds() ? "retard de " + lagSeconds + " s" : null;
+            }
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+    
+    private void eject(Replica replica, String reason) {
+        if (replica.isHealthy()) {
+            replica.setHealthy(false);
+            ejections.incrementAndGet();
+            log.warn("Réplica {} écarté: {}", replica.name(), reason);
+        }
+    }
+    
+    private boolean recentlyWrote(String client) {
+        return client != null && recentWriters.getIfPresent(client) != null;
+    }
+    
+    /**
+     * Date la dernière écriture du client : à la validation de la transaction en cours, ou
+     * tout de suite pour un accès hors transaction.
+     */
+    private void recordWrite(String client) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recentWriters.put(client, Boolean.TRUE);
+            return;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.put(client, Boolean.TRUE);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Un réplica et son pool de connexions.
+     */
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+        
+        public String name() {
+            return name;
+        }
+        
+        public DataSource dataSource() {
+            return dataSource;
+        }
+        
+        public boolean isHealthy() {
+            return healthy;
+        }
+        
+        void setHealthy(boolean healthy) {
+            this.healthy = healthy;
+        }
+    }
+}
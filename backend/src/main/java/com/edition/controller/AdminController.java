@@ -0,0 +1,42 @@
+package com.edition.controller;
+
+import com.edition.dto.CacheStatsResponse;
+import com.edition.dto.RoleUpdateRequest;
+import com.edition.dto.UserResponse;
+import com.edition.security.PrincipalCache;
+import com.edition.service.BookCache;
+import com.edition.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class AdminController {
+    
+    private final UserService userService;
+    private final PrincipalCache principalCache;
+    private final BookCache bookCache;
+    
+    @GetMapping("/caches")
+    public Map<String, CacheStatsResponse> getCacheStats() {
+        return Map.of(
+                "principals", principalCache.stats(),
+                "books", bookCache.bookStats(),
+                "bookLists", bookCache.listStats());
+    }
+    
+    @PutMapping("/users/{username}/role")
+    public ResponseEntity<UserResponse> updateRole(@PathVariable String username,
+                                                   @RequestBody @Valid RoleUpdateRequest request) {
+        return userService.updateRole(username, request.getRole())
+                .map(user -> ResponseEntity.ok(new UserResponse(user.getUsername(), user.getRole().name())))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -2,22 +2,37 @@ package com.edition.controller;
 
 import com.edition.dto.AuthResponse;
 import com.edition.dto.LoginRequest;
+import com.edition.dto.RefreshRequest;
 import com.edition.dto.RegisterRequest;
 import com.edition.dto.UserResponse;
+import com.edition.security.AuthThrottle;
 import com.edition.security.JwtUtils;
+import com.edition.security.PasswordHashingExecutor;
+import com.edition.security.PrincipalCache;
+import com.edition.security.RevocationList;
+import com.edition.service.RefreshTokenService;
 import com.edition.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -27,45 +42,101 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
     private final UserService userService;
+    private final AuthThrottle authThrottle;
+    private final PasswordHashingExecutor passwordHashing;
+    private final RefreshTokenService refreshTokenService;
+    private final RevocationList revocationList;
+    private final PrincipalCache principalCache;
     
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody @Valid LoginRequest request) {
+    public ResponseEntity<?> login(@RequestBody @Valid LoginRequest request,
+                                   HttpServletRequest httpRequest) {
+        Optional<Duration> retryAfter = authThrottle.checkLogin(
+                httpRequest.getRemoteAddr(), request.getUsername());
+        if (retryAfter.isPresent()) {
+            return tooManyRequests(retryAfter.get());
+        }
+        Authentication authentication;
         try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getUsername(),
-                            request.getPassword()
-                    )
-            );
-            
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String token = jwtUtils.generateToken(userDetails);
-            
-            String role = userDetails.getAuthorities().stream()
-                    .findFirst()
-                    .map(Object::toString)
-                    .orElse("ROLE_USER");
-            
-            return ResponseEntity.ok(new AuthResponse(
-                    token,
-                    userDetails.getUsername(),
-                    role
-            ));
-        } catch (Exception e) {
+            authentication = passwordHashing.execute("authenticate", () ->
+                    authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken(
+                                    request.getUsername(),
+                                    request.getPassword()
+                            )
+                    ));
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests(Duration.ofSeconds(1));
+        } catch (InternalAuthenticationServiceException e) {
+            // Panne (base indisponible...) et non identifiants refusés : ni 400 ni seau débité.
+            // Relancée sans l'enveloppe d'authentification, qui vaudrait un 401 au lieu d'un 500.
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getMessage());
+        } catch (AuthenticationException e) {
+            authThrottle.loginFailed(request.getUsername());
             return ResponseEntity.badRequest()
                     .body(Map.of("message", "Identifiants incorrects"));
         }
+        
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        String refreshToken = refreshTokenService.issue(userDetails.getUsername());
+        
+        return ResponseEntity.ok(authResponse(userDetails, refreshToken));
+    }
+    
+    /**
+     * Nouveau token d'accès contre un refresh token, qui est remplacé. Aucun calcul BCrypt.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody @Valid RefreshRequest request) {
+        return refreshTokenService.rotate(request.getRefreshToken())
+                .<ResponseEntity<?>>map(rotation -> {
+                    try {
+                        UserDetails userDetails = principalCache.get(
+                                rotation.username(), userService::loadUserByUsername);
+                        return ResponseEntity.ok(authResponse(userDetails, rotation.refreshToken()));
+                    } catch (UsernameNotFoundException e) {
+                        refreshTokenService.revoke(rotation.refreshToken());
+                        return sessionExpired();
+                    }
+                })
+                .orElseGet(AuthController::sessionExpired);
+    }
+    
+    /**
+     * Révoque le token d'accès courant et la session du refresh token fourni.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody(required = false) RefreshRequest request,
+                                    @RequestHeader(value = "Authorization", required = false) String header) {
+        if (header != null && header.startsWith("Bearer ")) {
+            jwtUtils.verify(header.substring(7))
+                    .filter(claims -> claims.getId() != null && claims.getExpiration() != null)
+                    .ifPresent(claims -> revocationList.revoke(claims.getId(), claims.getExpiration().toInstant()));
+        }
+        if (request != null && request.getRefreshToken() != null) {
+            refreshTokenService.revoke(request.getRefreshToken());
+        }
+        return ResponseEntity.ok(Map.of("message", "Déconnexion réussie"));
     }
     
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody @Valid RegisterRequest request) {
+    public ResponseEntity<?> register(@RequestBody @Valid RegisterRequest request,
+                                      HttpServletRequest httpRequest) {
+        Optional<Duration> retryAfter = authThrottle.checkRegister(httpRequest.getRemoteAddr());
+        if (retryAfter.isPresent()) {
+            return tooManyRequests(retryAfter.get());
+        }
         if (userService.existsByUsername(request.getUsername())) {
             return ResponseEntity.badRequest()
                     .body(Map.of("message", "Ce nom d'utilisateur existe déjà"));
         }
         
-        userService.createUser(request);
+        try {
+            userService.createUser(request);
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests(Duration.ofSeconds(1));
+        }
         return ResponseEntity.ok(Map.of("message", "Inscription réussie"));
     }
     
@@ -83,4 +154,33 @@ public class AuthController {
         
         return ResponseEntity.ok(new UserResponse(user.getUsername(), role));
     }
+    
+    /**
+     * 429 avec {@code Retry-After} en secondes entières (au moins 1).
+     */
+    private static ResponseEntity<?> tooManyRequests(Duration retryAfter) {
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(Map.of("message", "Trop de tentatives, réessayez plus tard"));
+    }
+    
+    private AuthResponse authResponse(UserDetails userDetails, String refreshToken) {
+        String role = userDetails.getAuthorities().stream()
+                .findFirst()
+                .map(Object::toString)
+                .orElse("ROLE_USER");
+        
+        return new AuthResponse(
+                jwtUtils.generateToken(userDetails),
+                refreshToken,
+                userDetails.getUsername(),
+                role
+        );
+    }
+    
+    private static ResponseEntity<?> sessionExpired() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("message", "Session expirée, veuillez vous reconnecter"));
+    }
 }
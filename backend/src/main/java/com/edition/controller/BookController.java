@@ -1,15 +1,50 @@
 package com.edition.controller;
 
+import com.edition.cover.CoverFile;
+import com.edition.cover.CoverService;
+import com.edition.dto.BookFilter;
+import com.edition.dto.BookPatch;
+import com.edition.dto.BulkCriteria;
+import com.edition.dto.BulkRecategorizeRequest;
+import com.edition.dto.BulkRepriceRequest;
+import com.edition.dto.BookSummary;
+import com.edition.dto.CatalogStatsResponse;
+import com.edition.dto.CursorPage;
+import com.edition.dto.FacetCountsResponse;
+import com.edition.dto.ImportReport;
 import com.edition.model.Book;
 import com.edition.model.BookCategory;
+import com.edition.search.BookFacetIndex;
+import com.edition.service.BookBulkService;
 import com.edition.service.BookService;
+import com.edition.service.BookTransferService;
+import com.edition.service.CatalogStatistics;
+import com.edition.service.CatalogVersion;
+import com.edition.service.ChangeFeed;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -18,34 +53,254 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class BookController {
     
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
     private final BookService bookService;
+    private final CatalogVersion catalogVersion;
+    private final CatalogStatistics catalogStatistics;
+    private final BookTransferService bookTransferService;
+    private final BookBulkService bookBulkService;
+    private final ChangeFeed changeFeed;
+    private final CoverService coverService;
+    private final ObjectMapper objectMapper;
+    private final MappingJackson2CborHttpMessageConverter cborConverter;
+    private final MappingJackson2SmileHttpMessageConverter smileConverter;
+    
+    /**
+     * Durée pendant laquelle un client peut réutiliser une réponse sans la revalider ;
+     * 0 impose une revalidation (requête conditionnelle) à chaque lecture.
+     */
+    @Value("${books.http.max-age:PT0S}")
+    private Duration maxAge;
     
+    @Value("${books.covers.max-age:P7D}")
+    private Duration coverMaxAge;
+    
+    /**
+     * Liste du catalogue.
+     * <ul>
+     *   <li>avec {@code q} seul : meilleurs résultats de la recherche plein texte, classés par
+     *       pertinence ({@code size} au plus) ;</li>
+     *   <li>avec {@code cursor} ou {@code size} : une page {@link CursorPage} de {@link BookSummary},
+     *       filtrée par les critères de {@link BookFilter} ;</li>
+     *   <li>avec {@code stream=true} : tous les livres satisfaisant les critères, écrits dans la
+     *       réponse à mesure qu'ils sont lus en base ; la mémoire occupée ne dépend pas de la
+     *       taille du catalogue ;</li>
+     *   <li>sinon : tous les livres satisfaisant les critères (comportement historique).</li>
+     * </ul>
+     * Dans les trois derniers cas, tous les critères (y compris {@code q}) sont combinés en une
+     * seule requête, triée par {@code sort} et {@code direction}.
+     * <p>
+     * L'ETag est la version globale du catalogue : un {@code If-None-Match} à jour reçoit
+     * un 304 sans aucune requête en base.
+     */
     @GetMapping
-    public List<Book> getAllBooks(
-            @RequestParam(required = false) BookCategory category,
-            @RequestParam(required = false) String author,
-            @RequestParam(required = false) String title) {
+    public ResponseEntity<?> getAllBooks(
+            BookFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @RequestParam(defaultValue = "false") boolean stream,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        if (category != null) {
-            return bookService.findByCategory(category);
+        // Version lue avant la requête : une modification concurrente invalidera l'ETag
+        String etag = ETags.forCatalog(catalogVersion.current());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
         }
-        if (author != null && !author.isBlank()) {
-            return bookService.searchByAuthor(author);
+        
+        if (filter.isTextSearchOnly() && cursor == null && sort == null && !stream) {
+            return cacheable(etag).body(bookService.search(filter.getQ(), size));
         }
-        if (title != null && !title.isBlank()) {
-            return bookService.searchByTitle(title);
+        
+        try {
+            if (stream && cursor == null && size == null) {
+                BookService.BookScan scan = bookService.scan(filter, sort, direction);
+                MediaType type = streamType(accept);
+                ObjectMapper mapper = mapperFor(type);
+                return cacheable(etag)
+                        .contentType(type)
+                        .body((StreamingResponseBody) output -> bookTransferService.writeArray(mapper, scan, output));
+            }
+            if (cursor != null || size != null) {
+                return cacheable(etag).body(bookService.findPage(filter, cursor, size, sort, direction));
+            }
+            if (filter.hasCriteria() || sort != null) {
+                return cacheable(etag).body(bookService.filter(filter, sort, direction));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", e.getMessage()));
         }
         
-        return bookService.findAll();
+        return cacheable(etag).body(bookService.findAll());
+    }
+    
+    /**
+     * Statistiques du catalogue (effectifs, prix, décennies de publication) par catégorie,
+     * tenues à jour en mémoire : aucune requête en base. Même ETag que la liste du catalogue.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<CatalogStatsResponse> getStats(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.forCatalog(catalogVersion.current());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return cacheable(etag).body(catalogStatistics.snapshot());
+    }
+    
+    /**
+     * Comptes par catégorie, décennie de publication et tranche de prix, éventuellement
+     * restreints par une recherche texte {@code q}. Chaque paramètre de facette se répète
+     * ({@code category=ROMAN&category=POESIE}) ; les tranches de prix suivent
+     * {@code books.facets.price-bounds} ({@code 0-10}, {@code 10-20}, ..., {@code 50+}).
+     * Comptes calculés sur les bitmaps en mémoire, sans requête en base ; même ETag que la
+     * liste du catalogue.
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<?> getFacets(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) List<BookCategory> category,
+            @RequestParam(required = false) List<Integer> decade,
+            @RequestParam(required = false) List<String> price,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.forCatalog(catalogVersion.current());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        try {
+            FacetCountsResponse facets = bookService.facets(q,
+                    BookFacetIndex.Selection.of(category, decade, price));
+            return cacheable(etag).body(facets);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Modifications du catalogue postérieures au curseur {@code since} (créations, mises à jour,
+     * suppressions), pour une synchronisation incrémentale. Sans {@code since} : le curseur
+     * courant seulement. 410 si le curseur est plus ancien que la rétention du journal.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(required = false) String since,
+                                        @RequestParam(required = false) Integer limit) {
+        try {
+            return changeFeed.page(since, limit)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE)
+                            .body(Map.of("message", "Curseur expiré, une synchronisation complète est nécessaire")));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Les mêmes modifications en direct (Server-Sent Events). Un client qui se reconnecte
+     * avec {@code Last-Event-ID} (ou {@code since}) reçoit d'abord celles qu'il a manquées.
+     */
+    @GetMapping("/changes/stream")
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        try {
+            return ResponseEntity.ok(changeFeed.subscribe(lastEventId != null ? lastEventId : since));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
+    /**
+     * Un {@code If-None-Match} est vérifié sur la seule version du livre, sans charger l'entité.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Book> getBook(@PathVariable Long id) {
+    public ResponseEntity<Book> getBook(@PathVariable Long id,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                        String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Long version = bookService.findVersion(id).orElse(null);
+            if (version == null) {
+                return ResponseEntity.notFound().build();
+            }
+            String etag = ETags.forBook(id, version);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+        }
+        
         return bookService.findById(id)
-                .map(ResponseEntity::ok)
+                .map(book -> cacheable(ETags.forBook(book.getId(), book.getVersion())).body(book))
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    /**
+     * Couverture du livre, téléchargée une fois depuis {@code coverUrl} puis servie depuis le
+     * cache disque ; {@code width} demande une miniature (largeurs de {@code books.covers.widths}).
+     * Tant que la miniature est en cours de génération, l'original est servi sans mise en cache.
+     * <p>
+     * Sous Tomcat, le fichier est envoyé par sendfile (copie noyau, sans passer par la JVM).
+     */
+    @GetMapping("/{id}/cover")
+    public ResponseEntity<?> getCover(@PathVariable Long id,
+                                      @RequestParam(required = false) Integer width,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                      String ifNoneMatch,
+                                      HttpServletRequest request) {
+        String coverUrl = bookService.findById(id).map(Book::getCoverUrl).orElse(null);
+        if (coverUrl == null || coverUrl.isBlank()) {
+            return ResponseEntity.notFound().build();
+        }
+        CoverFile cover;
+        try {
+            cover = coverService.find(coverUrl, width).orElse(null);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                    .body(Map.of("message", "Couverture momentanément indisponible"));
+        }
+        if (cover == null) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        String etag = ETags.forCover(cover.contentHash(), cover.width());
+        CacheControl cacheControl = cover.pending()
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(coverMaxAge).cachePublic().immutable();
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.parseMediaType(cover.contentType()))
+                .contentLength(cover.size());
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            try {
+                request.setAttribute(SENDFILE_FILENAME, cover.path().toRealPath().toString());
+            } catch (IOException e) {
+                return ResponseEntity.notFound().build();
+            }
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, cover.size());
+            return response.build();
+        }
+        return response.body(new FileSystemResource(cover.path()));
+    }
+    
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> createBook(@RequestBody @Valid Book book) {
@@ -55,16 +310,74 @@ public class BookController {
         }
         
         Book savedBook = bookService.save(book);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedBook);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(ETags.forBook(savedBook.getId(), savedBook.getVersion()))
+                .body(savedBook);
     }
     
+    /**
+     * La version attendue vient de l'en-tête {@code If-Match} ou, à défaut, du champ
+     * {@code version} du corps ; si le livre a changé entre-temps, la mise à jour est refusée.
+     */
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> updateBook(@PathVariable Long id, 
-                                        @RequestBody @Valid Book book) {
-        return bookService.update(id, book)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> updateBook(@PathVariable Long id,
+                                        @RequestBody @Valid Book book,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                        String ifMatch) {
+        Long expectedVersion = ifMatch != null ? ETags.bookVersion(ifMatch, id) : book.getVersion();
+        if (ifMatch != null && expectedVersion == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(Map.of("message", "En-tête If-Match invalide ou d'un autre livre"));
+        }
+        try {
+            return bookService.update(id, book, expectedVersion)
+                    .<ResponseEntity<?>>map(saved -> ResponseEntity.ok()
+                            .eTag(ETags.forBook(saved.getId(), saved.getVersion()))
+                            .body(saved))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Le livre a été modifié entre-temps"));
+        }
+    }
+    
+    /**
+     * Modification partielle au format JSON Merge Patch : seuls les champs envoyés sont validés
+     * et écrits. La version attendue est obligatoire ({@code If-Match} ou champ {@code version}).
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> patchBook(@PathVariable Long id,
+                                       @RequestBody JsonNode body,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                       String ifMatch) {
+        try {
+            BookPatch patch = BookPatch.from(body, objectMapper);
+            Long expectedVersion = ifMatch != null ? ETags.bookVersion(ifMatch, id) : patch.version();
+            if (ifMatch != null && expectedVersion == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                        .body(Map.of("message", "En-tête If-Match invalide ou d'un autre livre"));
+            }
+            if (expectedVersion == null) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+                        .body(Map.of("message", "Version attendue manquante (en-tête If-Match ou champ version)"));
+            }
+            return bookService.patch(id, patch, expectedVersion)
+                    .<ResponseEntity<?>>map(saved -> ResponseEntity.ok()
+                            .eTag(ETags.forBook(saved.getId(), saved.getVersion()))
+                            .body(saved))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Le livre a été modifié entre-temps"));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "Un livre avec cet ISBN existe déjà"));
+        }
     }
     
     @DeleteMapping("/{id}")
@@ -75,4 +388,141 @@ public class BookController {
         }
         return ResponseEntity.notFound().build();
     }
+    
+    /**
+     * Modifie le prix de tous les livres sélectionnés de {@code percent} %, par lots.
+     */
+    @PostMapping("/bulk/reprice")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> repriceBooks(@RequestBody @Valid BulkRepriceRequest request) {
+        try {
+            return ResponseEntity.ok(bookBulkService.reprice(request.getCriteria(), request.getPercent()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/bulk/recategorize")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> recategorizeBooks(@RequestBody @Valid BulkRecategorizeRequest request) {
+        try {
+            return ResponseEntity.ok(bookBulkService.recategorize(request.getCriteria(), request.getCategory()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/bulk/delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> deleteBooks(@RequestBody BulkCriteria criteria) {
+        try {
+            return ResponseEntity.ok(bookBulkService.delete(criteria));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Import en masse au format NDJSON : un livre JSON par ligne.
+     */
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportReport> importNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(bookTransferService.importNdjson(body));
+    }
+    
+    /**
+     * Import en masse au format CSV, avec une ligne d'en-tête nommant les colonnes.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importCsv(InputStream body) throws IOException {
+        try {
+            return ResponseEntity.ok(bookTransferService.importCsv(body));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Export de tout le catalogue ({@code format} : ndjson, csv, ou cbor et smile pour un seul
+     * tableau binaire), écrit au fil de la lecture en base.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportBooks(@RequestParam(defaultValue = "ndjson") String format) {
+        return switch (format) {
+            case "ndjson" -> ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=books.ndjson")
+                    .body(bookTransferService::exportNdjson);
+            case "csv" -> ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=books.csv")
+                    .body(bookTransferService::exportCsv);
+            case "cbor", "smile" -> {
+                MediaType type = format.equals("cbor") ? MediaType.APPLICATION_CBOR : SMILE;
+                ObjectMapper mapper = mapperFor(type);
+                yield ResponseEntity.ok()
+                        .contentType(type)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=books." + format)
+                        .body(output -> bookTransferService.exportArray(mapper, output));
+            }
+            default -> ResponseEntity.badRequest().build();
+        };
+    }
+    
+    /**
+     * Format d'une liste écrite en flux : le premier type de l'en-tête {@code Accept}
+     * parmi CBOR et Smile, JSON sinon.
+     */
+    private MediaType streamType(String accept) {
+        if (accept != null) {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                    return MediaType.APPLICATION_CBOR;
+                }
+                if (type.equalsTypeAndSubtype(SMILE)) {
+                    return SMILE;
+                }
+                if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    break;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+    
+    private ObjectMapper mapperFor(MediaType type) {
+        if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+            return cborConverter.getObjectMapper();
+        }
+        if (type.equalsTypeAndSubtype(SMILE)) {
+            return smileConverter.getObjectMapper();
+        }
+        return objectMapper;
+    }
+    
+    private ResponseEntity.BodyBuilder cacheable(String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(cacheControl());
+    }
+    
+    private <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(cacheControl())
+                .build();
+    }
+    
+    private CacheControl cacheControl() {
+        CacheControl cacheControl = maxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(maxAge);
+        return cacheControl.cachePublic();
+    }
 }
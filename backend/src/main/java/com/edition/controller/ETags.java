@@ -0,0 +1,76 @@
+package com.edition.controller;
+
+/**
+ * ETags des ressources du catalogue et comparaison avec l'en-tête {@code If-None-Match}.
+ */
+final class ETags {
+    
+    private ETags() {
+    }
+    
+    static String forBook(Long id, Long version) {
+        return "\"b" + id + "v" + version + "\"";
+    }
+    
+    /**
+     * ETag faible : la liste peut être servie en JSON, CBOR ou Smile, compressée ou non, et
+     * Tomcat ne compresse jamais une réponse portant un ETag fort.
+     */
+    static String forCatalog(long catalogVersion) {
+        return "W/\"c" + catalogVersion + "\"";
+    }
+    
+    /**
+     * ETag fort : une couverture est adressée par l'empreinte de son contenu, et chaque
+     * variante est un fichier distinct.
+     */
+    static String forCover(String contentHash, Integer width) {
+        return "\"" + contentHash + (width != null ? "-w" + width : "") + "\"";
+    }
+    
+    /**
+     * Version contenue dans un ETag du livre {@code id}, ou null si l'en-tête n'est pas un
+     * ETag de livre ou désigne un autre livre.
+     */
+    static Long bookVersion(String etag, Long id) {
+        if (etag == null) {
+            return null;
+        }
+        String value = etag.trim();
+        int versionStart = value.lastIndexOf('v');
+        if (!value.startsWith("\"b") || !value.endsWith("\"") || versionStart < 2) {
+            return null;
+        }
+        try {
+            if (!Long.valueOf(value.substring(2, versionStart)).equals(id)) {
+                return null;
+            }
+            return Long.valueOf(value.substring(versionStart + 1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Comparaison faible (RFC 9110 §13.1.2) : {@code *} ou l'un des ETags de la liste.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (opaqueTag(value).equals(opaqueTag(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
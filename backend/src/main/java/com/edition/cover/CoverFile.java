@@ -0,0 +1,15 @@
+package com.edition.cover;
+
+import java.nio.file.Path;
+
+/**
+ * Fichier de couverture prêt à être servi.
+ *
+ * @param contentHash empreinte SHA-256 de l'image d'origine
+ * @param width       largeur de la variante servie, ou null pour l'original
+ * @param pending     vrai si la variante demandée n'est pas encore prête et que
+ *                    l'original est servi à sa place
+ */
+public record CoverFile(Path path, String contentType, long size, String contentHash,
+                        Integer width, boolean pending) {
+}
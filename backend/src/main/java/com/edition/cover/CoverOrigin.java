@@ -0,0 +1,18 @@
+package com.edition.cover;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Source des images de couverture mises en cache par {@link CoverService}. L'implémentation
+ * par défaut ({@link HttpCoverOrigin}) les télécharge ; un test peut la remplacer par un bean
+ * {@code @Primary} servant des fichiers locaux.
+ */
+public interface CoverOrigin {
+    
+    /**
+     * @return le contenu de l'image, ou vide si l'origine n'a pas d'image à cette adresse
+     * @throws IOException si l'origine est injoignable ou répond en erreur
+     */
+    Optional<byte[]> fetch(String url) throws IOException;
+}
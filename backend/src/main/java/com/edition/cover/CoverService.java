@@ -0,0 +1,260 @@
+package com.edition.cover;
+
+import com.edition.cover.CoverStore.StoredCover;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.spi.ImageReaderSpi;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Couvertures des livres : téléchargées une fois depuis {@link CoverOrigin}, conservées par
+ * {@link CoverStore}, puis réduites aux largeurs de {@code books.covers.widths} sur un pool
+ * dédié. Tant qu'une variante n'est pas prête, l'original est servi à sa place.
+ * <p>
+ * Les téléchargements simultanés d'une même URL sont fusionnés, et une URL sans image
+ * n'est pas redemandée à l'origine avant {@code books.covers.miss-ttl}.
+ */
+@Slf4j
+@Service
+public class CoverService implements DisposableBean {
+    
+    /** Au-delà, l'image n'est pas décodée (environ 256 Mo en mémoire). */
+    private static final long MAX_PIXELS = 64_000_000L;
+    
+    private final CoverOrigin origin;
+    private final CoverStore store;
+    private final Set<Integer> widths;
+    private final ThreadPoolExecutor resizer;
+    private final Set<String> pendingVariants = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, CompletableFuture<Optional<StoredCover>>> downloads =
+            new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> misses;
+    
+    public CoverService(CoverOrigin origin, CoverStore store,
+                        @Value("${books.covers.widths:160,320}") List<Integer> widths,
+                        @Value("${books.covers.resize-threads:2}") int resizeThreads,
+                        @Value("${books.covers.resize-queue-capacity:1000}") int resizeQueueCapacity,
+                        @Value("${books.covers.miss-ttl:PT10M}") Duration missTtl,
+                        MeterRegistry meterRegistry) {
+        this.origin = origin;
+        this.store = store;
+        this.widths = Set.copyOf(widths);
+        this.resizer = new ThreadPoolExecutor(resizeThreads, resizeThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(resizeQueueCapacity), threadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.misses = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(missTtl)
+                .build();
+        Gauge.builder("covers.resize.queued", resizer, e -> e.getQueue().size())
+                .description("Miniatures de couverture en attente de génération")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * @param width largeur souhaitée, ou null pour l'original
+     * @return le fichier à servir, ou vide si l'origine n'a pas d'image pour cette URL
+     * @throws IllegalArgumentException si {@code width} ne fait pas partie des largeurs configurées
+     * @throws IOException              si l'origine est injoignable
+     */
+    public Optional<CoverFile> find(String url, Integer width) throws IOException {
+        if (width != null && !widths.contains(width)) {
+            throw new IllegalArgumentException("Largeur non disponible : " + width + " (possibles : " + widths + ")");
+        }
+        Optional<StoredCover> stored = store.find(url);
+        if (stored.isEmpty()) {
+            stored = download(url);
+        }
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        StoredCover cover = stored.get();
+        if (width != null) {
+            Path variant = store.variant(cover.hash(), width);
+            if (Files.exists(variant)) {
+                return Optional.of(new CoverFile(variant, "image/jpeg", Files.size(variant),
+                        cover.hash(), width, false));
+            }
+            scheduleVariants(cover);
+        }
+        Path original = store.original(cover);
+        return Optional.of(new CoverFile(original, cover.contentType(), Files.size(original),
+                cover.hash(), null, width != null));
+    }
+    
+    @Override
+    public void destroy() {
+        resizer.shutdownNow();
+    }
+    
+    private Optional<StoredCover> download(String url) throws IOException {
+        if (misses.getIfPresent(url) != null) {
+            return Optional.empty();
+        }
+        CompletableFuture<Optional<StoredCover>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<StoredCover>> running = downloads.putIfAbsent(url, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException io) {
+                    throw io.getCause();
+                }
+                throw e;
+            }
+        }
+        try {
+            Optional<byte[]> content = origin.fetch(url);
+            Optional<StoredCover> cover = content.isPresent() ? store(url, content.get()) : Optional.empty();
+            if (cover.isEmpty()) {
+                misses.put(url, Boolean.TRUE);
+            }
+            cover.ifPresent(this::scheduleVariants);
+            mine.complete(cover);
+            return cover;
+        } catch (IOException e) {
+            mine.completeExceptionally(new UncheckedIOException(e));
+            throw e;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            downloads.remove(url, mine);
+        }
+    }
+    
+    /**
+     * Conserve {@code content} s'il s'agit d'une image que {@link ImageIO} sait lire.
+     */
+    private Optional<StoredCover> store(String url, byte[] content) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                log.warn("Couverture ignorée, format non reconnu : {}", url);
+                return Optional.empty();
+            }
+            ImageReaderSpi provider = readers.next().getOriginatingProvider();
+            return Optional.of(store.put(url, content,
+                    provider.getFileSuffixes()[0], provider.getMIMETypes()[0]));
+        }
+    }
+    
+    private void scheduleVariants(StoredCover cover) {
+        for (int width : widths) {
+            String key = cover.hash() + "-w" + width;
+            if (Files.exists(store.variant(cover.hash(), width)) || !pendingVariants.add(key)) {
+                continue;
+            }
+            try {
+                resizer.execute(() -> {
+                    try {
+                        resize(cover, width);
+                    } finally {
+                        pendingVariants.remove(key);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // File pleine : la variante sera redemandée à la prochaine requête.
+                pendingVariants.remove(key);
+            }
+        }
+    }
+    
+    private void resize(StoredCover cover, int width) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(store.original(cover).toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return;
+            }
+            ImageReader reader = readers.next();
+            BufferedImage source;
+            try {
+                reader.setInput(in, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+                    log.warn("Couverture {} trop grande pour être réduite", cover.hash());
+                    return;
+                }
+                source = reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(scale(source, width), "jpg", out);
+            store.writeVariant(cover.hash(), width, out.toByteArray());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Échec de la réduction de la couverture {} à {}px", cover.hash(), width, e);
+        }
+    }
+    
+    /**
+     * Réduit par moitiés successives puis termine en bicubique : une seule passe bicubique
+     * sur un grand facteur de réduction crénèle l'image. Le résultat est opaque (fond blanc),
+     * JPEG ne gérant pas la transparence. Une image déjà plus étroite n'est pas agrandie.
+     */
+    static BufferedImage scale(BufferedImage source, int width) {
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth) {
+            current = draw(current, current.getWidth() / 2, Math.max(targetHeight, current.getHeight() / 2));
+        }
+        return draw(current, targetWidth, targetHeight);
+    }
+    
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+    
+    private static ThreadFactory threadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "cover-resize-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,130 @@
+package com.edition.cover;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Cache disque des couvertures, adressé par contenu :
+ * <ul>
+ *   <li>{@code objects/ab/<sha256>.<ext>} : images d'origine, une seule copie par contenu ;</li>
+ *   <li>{@code variants/ab/<sha256>-w<largeur>.jpg} : miniatures ;</li>
+ *   <li>{@code refs/ab/<sha256 de l'URL>} : empreinte, extension et type MIME de l'image
+ *       téléchargée depuis cette URL.</li>
+ * </ul>
+ * Chaque fichier est écrit à côté puis renommé : un lecteur ne voit jamais de fichier partiel.
+ */
+@Component
+class CoverStore {
+    
+    private final Path objects;
+    private final Path variants;
+    private final Path refs;
+    private final Cache<String, StoredCover> refCache;
+    
+    CoverStore(@Value("${books.covers.cache-dir:${java.io.tmpdir}/edition-covers}") Path root,
+               @Value("${books.covers.ref-cache-size:10000}") long refCacheSize) throws IOException {
+        this.objects = Files.createDirectories(root.resolve("objects"));
+        this.variants = Files.createDirectories(root.resolve("variants"));
+        this.refs = Files.createDirectories(root.resolve("refs"));
+        this.refCache = Caffeine.newBuilder()
+                .maximumSize(refCacheSize)
+                .build();
+    }
+    
+    Optional<StoredCover> find(String url) throws IOException {
+        String key = sha256(url.getBytes(StandardCharsets.UTF_8));
+        StoredCover cached = refCache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        String ref;
+        try {
+            ref = Files.readString(shard(refs, key, ""));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        String[] parts = ref.trim().split(" ");
+        if (parts.length != 3 || !Files.exists(original(parts[0], parts[1]))) {
+            return Optional.empty();
+        }
+        StoredCover cover = new StoredCover(parts[0], parts[1], parts[2]);
+        refCache.put(key, cover);
+        return Optional.of(cover);
+    }
+    
+    StoredCover put(String url, byte[] content, String suffix, String contentType) throws IOException {
+        String hash = sha256(content);
+        Path original = original(hash, suffix);
+        if (!Files.exists(original)) {
+            write(original, content);
+        }
+        String key = sha256(url.getBytes(StandardCharsets.UTF_8));
+        write(shard(refs, key, ""), (hash + " " + suffix + " " + contentType).getBytes(StandardCharsets.UTF_8));
+        StoredCover cover = new StoredCover(hash, suffix, contentType);
+        refCache.put(key, cover);
+        return cover;
+    }
+    
+    Path original(StoredCover cover) {
+        return original(cover.hash(), cover.suffix());
+    }
+    
+    Path variant(String hash, int width) {
+        return shard(variants, hash, "-w" + width + ".jpg");
+    }
+    
+    void writeVariant(String hash, int width, byte[] content) throws IOException {
+        write(variant(hash, width), content);
+    }
+    
+    private Path original(String hash, String suffix) {
+        return shard(objects, hash, "." + suffix);
+    }
+    
+    private static Path shard(Path dir, String hash, String suffix) {
+        return dir.resolve(hash.substring(0, 2)).resolve(hash + suffix);
+    }
+    
+    private static void write(Path target, byte[] content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".cover", ".tmp");
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Image d'origine en cache : empreinte de son contenu, extension et type MIME.
+     */
+    record StoredCover(String hash, String suffix, String contentType) {
+    }
+}
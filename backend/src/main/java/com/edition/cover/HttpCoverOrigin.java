@@ -0,0 +1,140 @@
+package com.edition.cover;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Télécharge les couvertures en HTTP(S). Seuls les hôtes de {@code books.covers.allowed-hosts}
+ * sont contactés (aucun si la liste est vide), y compris après une redirection, et une image
+ * ne peut dépasser {@code books.covers.max-bytes}.
+ * <p>
+ * Un hôte autorisé dont le nom se résout en une adresse non publique (boucle locale, réseau
+ * privé, lien local...) est refusé : une entrée DNS ne peut pas faire atteindre le réseau
+ * interne. La connexion réutilise la résolution gardée en cache par la JVM
+ * ({@code networkaddress.cache.ttl}, 30 s par défaut), qui ne doit donc pas être désactivée.
+ */
+@Component
+public class HttpCoverOrigin implements CoverOrigin {
+    
+    private static final int MAX_REDIRECTS = 5;
+    
+    private final HttpClient client;
+    private final Duration timeout;
+    private final long maxBytes;
+    private final List<String> allowedHosts;
+    
+    public HttpCoverOrigin(@Value("${books.covers.timeout:PT5S}") Duration timeout,
+                           @Value("${books.covers.max-bytes:5000000}") long maxBytes,
+                           @Value("${books.covers.allowed-hosts:}") List<String> allowedHosts) {
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.timeout = timeout;
+        this.maxBytes = maxBytes;
+        this.allowedHosts = allowedHosts.stream()
+                .filter(host -> !host.isBlank())
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .toList();
+    }
+    
+    @Override
+    public Optional<byte[]> fetch(String url) throws IOException {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        for (int redirects = 0; redirects <= MAX_REDIRECTS; redirects++) {
+            if (!isAllowed(uri)) {
+                return Optional.empty();
+            }
+            HttpResponse<InputStream> response = send(uri);
+            try (InputStream body = response.body()) {
+                int status = response.statusCode();
+                if (status >= 300 && status < 400) {
+                    Optional<String> location = response.headers().firstValue("Location");
+                    if (location.isEmpty()) {
+                        throw new IOException("Redirection sans destination depuis " + uri.getHost());
+                    }
+                    uri = uri.resolve(location.get());
+                    continue;
+                }
+                if (status == 404 || status == 410) {
+                    return Optional.empty();
+                }
+                if (status != 200) {
+                    throw new IOException("Réponse " + status + " de " + uri.getHost());
+                }
+                byte[] content = body.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxBytes + 1));
+                if (content.length > maxBytes) {
+                    throw new IOException("Image de plus de " + maxBytes + " octets: " + url);
+                }
+                return Optional.of(content);
+            }
+        }
+        throw new IOException("Trop de redirections: " + url);
+    }
+    
+    private HttpResponse<InputStream> send(URI uri) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Accept", "image/*")
+                .GET()
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Téléchargement interrompu: " + uri, e);
+        }
+    }
+    
+    private boolean isAllowed(URI uri) {
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https") || uri.getHost() == null) {
+            return false;
+        }
+        if (!allowedHosts.contains(uri.getHost().toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(uri.getHost());
+        } catch (UnknownHostException e) {
+            return false;
+        }
+        return Arrays.stream(addresses).allMatch(HttpCoverOrigin::isPublic);
+    }
+    
+    static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet6Address) {
+            // Adresses uniques locales fc00::/7
+            return (bytes[0] & 0xfe) != 0xfc;
+        }
+        // « Ce réseau » 0.0.0.0/8 et adresses partagées des opérateurs 100.64.0.0/10
+        int first = bytes[0] & 0xff;
+        return first != 0 && !(first == 100 && (bytes[1] & 0xc0) == 64);
+    }
+}
@@ -0,0 +1,24 @@
+package com.edition.dto;
+
+import com.edition.model.Book;
+import com.edition.model.BookChange;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Une modification du flux. {@code book} est l'état actuel du livre, null s'il a été
+ * supprimé depuis : il suffit au client d'appliquer le dernier état de chaque livre.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookChangeResponse {
+    private String cursor;
+    private BookChange.Type type;
+    private Long bookId;
+    private Instant changedAt;
+    private Book book;
+}
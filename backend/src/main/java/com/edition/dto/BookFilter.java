@@ -0,0 +1,54 @@
+package com.edition.dto;
+
+import com.edition.model.BookCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Critères de filtre du catalogue, tous optionnels et combinés en ET.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookFilter {
+    /** Recherche plein texte sur le titre, l'auteur, la description et l'ISBN. */
+    private String q;
+    private BookCategory category;
+    private String author;
+    private String title;
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer yearFrom;
+    private Integer yearTo;
+    
+    public boolean hasCriteria() {
+        return hasText(q) || hasFieldCriteria();
+    }
+    
+    /**
+     * Vrai si seule la recherche plein texte est renseignée.
+     */
+    public boolean isTextSearchOnly() {
+        return hasText(q) && !hasFieldCriteria();
+    }
+    
+    /**
+     * Vrai si seule la catégorie est renseignée (liste servie par le cache).
+     */
+    public boolean isCategoryOnly() {
+        return category != null && !hasText(q) && !hasText(author) && !hasText(title)
+                && minPrice == null && maxPrice == null && yearFrom == null && yearTo == null;
+    }
+    
+    private boolean hasFieldCriteria() {
+        return category != null
+                || hasText(author) || hasText(title)
+                || minPrice != null || maxPrice != null
+                || yearFrom != null || yearTo != null;
+    }
+    
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,67 @@
+package com.edition.dto;
+
+import com.edition.model.BookCategory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Modification partielle d'un livre au format JSON Merge Patch (RFC 7396) : seuls les champs
+ * présents sont modifiés, un champ à null est effacé. {@code version} n'est pas un champ
+ * modifiable mais la version attendue, à défaut d'en-tête {@code If-Match} ; les champs en
+ * lecture seule ({@code id}, dates) sont ignorés.
+ *
+ * @param changes nouvelles valeurs, par nom d'attribut de {@code Book}
+ */
+public record BookPatch(Map<String, Object> changes, Long version) {
+    
+    private static final Map<String, Class<?>> FIELDS = Map.of(
+            "title", String.class,
+            "author", String.class,
+            "isbn", String.class,
+            "price", Double.class,
+            "description", String.class,
+            "coverUrl", String.class,
+            "publicationYear", Integer.class,
+            "category", BookCategory.class);
+    
+    private static final Set<String> READ_ONLY = Set.of("id", "createdAt", "updatedAt");
+    
+    /**
+     * @throws IllegalArgumentException si le document n'est pas un objet, contient un champ
+     *                                  inconnu ou une valeur du mauvais type
+     */
+    public static BookPatch from(JsonNode document, ObjectMapper objectMapper) {
+        if (document == null || !document.isObject()) {
+            throw new IllegalArgumentException("Le patch doit être un objet JSON");
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        Long version = null;
+        for (Map.Entry<String, JsonNode> field : document.properties()) {
+            String name = field.getKey();
+            JsonNode value = field.getValue();
+            if (name.equals("version")) {
+                version = value.canConvertToLong() ? value.longValue() : null;
+                continue;
+            }
+            if (READ_ONLY.contains(name)) {
+                continue;
+            }
+            Class<?> type = FIELDS.get(name);
+            if (type == null) {
+                throw new IllegalArgumentException("Champ inconnu : " + name);
+            }
+            try {
+                changes.put(name, value.isNull() ? null : objectMapper.treeToValue(value, type));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Valeur invalide pour le champ " + name);
+            }
+        }
+        return new BookPatch(Collections.unmodifiableMap(changes), version);
+    }
+}
@@ -0,0 +1,23 @@
+package com.edition.dto;
+
+import com.edition.model.BookCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Projection allégée d'un livre pour les listes du catalogue (sans description).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSummary {
+    private Long id;
+    private String title;
+    private String author;
+    private String isbn;
+    private Double price;
+    private String coverUrl;
+    private Integer publicationYear;
+    private BookCategory category;
+}
@@ -0,0 +1,31 @@
+package com.edition.dto;
+
+import com.edition.model.BookCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Sélection des livres visés par une opération en masse, critères combinés en ET.
+ * L'auteur est comparé exactement (pas de recherche plein texte).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCriteria {
+    private BookCategory category;
+    private String author;
+    private Integer yearFrom;
+    private Integer yearTo;
+    private List<Long> ids;
+    
+    /**
+     * Vrai si aucun critère n'est renseigné : l'opération viserait tout le catalogue.
+     */
+    public boolean isEmpty() {
+        return category == null && (author == null || author.isBlank())
+                && yearFrom == null && yearTo == null && ids == null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.edition.dto;
+
+import com.edition.model.BookCategory;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRecategorizeRequest {
+    @Valid
+    @NotNull(message = "Les critères de sélection sont obligatoires")
+    private BulkCriteria criteria;
+    
+    @NotNull(message = "La catégorie est obligatoire")
+    private BookCategory category;
+}
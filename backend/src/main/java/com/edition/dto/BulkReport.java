@@ -0,0 +1,15 @@
+package com.edition.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bilan d'une opération en masse : lignes modifiées ou supprimées, et nombre de lots
+ * (une transaction courte chacun).
+ */
+@Data
+@NoArgsConstructor
+public class BulkReport {
+    private long affected;
+    private int chunks;
+}
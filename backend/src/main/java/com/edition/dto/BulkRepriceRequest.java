@@ -0,0 +1,24 @@
+package com.edition.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRepriceRequest {
+    @Valid
+    @NotNull(message = "Les critères de sélection sont obligatoires")
+    private BulkCriteria criteria;
+    
+    /** Variation en pourcentage : 5 pour +5 %, -10 pour -10 %. */
+    @NotNull(message = "Le pourcentage est obligatoire")
+    @DecimalMin(value = "-100", inclusive = false, message = "Une baisse doit rester inférieure à 100 %")
+    @DecimalMax(value = "1000", message = "Une hausse ne peut dépasser 1000 %")
+    private Double percent;
+}
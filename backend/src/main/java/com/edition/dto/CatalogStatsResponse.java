@@ -0,0 +1,16 @@
+package com.edition.dto;
+
+import com.edition.model.BookCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogStatsResponse {
+    private CategoryStatsResponse total;
+    private Map<BookCategory, CategoryStatsResponse> categories;
+}
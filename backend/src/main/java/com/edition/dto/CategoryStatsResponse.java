@@ -0,0 +1,23 @@
+package com.edition.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Statistiques d'un ensemble de livres. L'histogramme des années de publication
+ * associe le début de chaque décennie au nombre de livres publiés pendant celle-ci.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryStatsResponse {
+    private long count;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double averagePrice;
+    private Map<Integer, Long> publicationDecades;
+    private long unknownPublicationYear;
+}
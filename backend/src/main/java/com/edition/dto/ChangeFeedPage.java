@@ -0,0 +1,20 @@
+package com.edition.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Modifications postérieures au curseur demandé. {@code cursor} est à repasser en
+ * {@code since} à l'appel suivant, même quand {@code changes} est vide.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedPage {
+    private List<BookChangeResponse> changes;
+    private String cursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,23 @@
+package com.edition.dto;
+
+import com.edition.model.BookCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Nombre de livres par valeur de facette. {@code total} compte les livres qui satisfont
+ * tous les filtres ; les comptes d'une facette appliquent les filtres des autres facettes
+ * mais pas le sien, pour indiquer ce que donnerait le choix d'une autre valeur.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountsResponse {
+    private long total;
+    private Map<BookCategory, Long> categories;
+    private Map<Integer, Long> decades;
+    private Map<String, Long> prices;
+}
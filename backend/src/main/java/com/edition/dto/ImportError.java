@@ -0,0 +1,18 @@
+package com.edition.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ligne rejetée par un import : numéro de ligne dans le fichier (à partir de 1), ISBN
+ * s'il a pu être lu et raison du rejet.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportError {
+    private long line;
+    private String isbn;
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.edition.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bilan d'un import en masse. Au-delà de {@code books.import.max-errors}, les rejets
+ * sont comptés dans {@code rejected} sans être détaillés ({@code errorsTruncated}).
+ */
+@Data
+@NoArgsConstructor
+public class ImportReport {
+    private long received;
+    private long imported;
+    private long rejected;
+    private List<ImportError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,15 @@
+package com.edition.dto;
+
+import com.edition.model.Role;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoleUpdateRequest {
+    @NotNull(message = "Le rôle est obligatoire")
+    private Role role;
+}
@@ -0,0 +1,33 @@
+package com.edition.event;
+
+import com.edition.model.Book;
+
+/**
+ * Publié par {@code BookService}, {@code BookTransferService} et {@code BookBulkService} pour
+ * chaque modification du catalogue, dans la transaction qui la fait. Le journal des
+ * modifications l'écrit dans cette transaction ; les consommateurs en mémoire (cache, index,
+ * statistiques, version du catalogue) ne l'appliquent qu'après sa validation.
+ * {@code previous} est null pour une création, {@code current} est null pour une suppression.
+ */
+public record BookChangedEvent(Book previous, Book current) {
+    
+    public static BookChangedEvent created(Book book) {
+        return new BookChangedEvent(null, book);
+    }
+    
+    public static BookChangedEvent updated(Book previous, Book current) {
+        return new BookChangedEvent(previous, current);
+    }
+    
+    public static BookChangedEvent deleted(Book book) {
+        return new BookChangedEvent(book, null);
+    }
+    
+    public Long bookId() {
+        return current != null ? current.getId() : previous.getId();
+    }
+    
+    public boolean isDeletion() {
+        return current == null;
+    }
+}
@@ -0,0 +1,90 @@
+package com.edition.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Compte les requêtes SQL préparées par Hibernate pour la requête HTTP en cours, sans les
+ * modifier. {@link StatementMetricsFilter} ouvre un compteur au début de chaque requête
+ * HTTP et le relève à la fin.
+ * <p>
+ * Le compteur suit le thread de la requête et les tâches qu'elle confie à un autre thread
+ * via {@link #propagate(Runnable)} : pool de hachage des mots de passe, exécuteur des
+ * réponses asynchrones (décorateur de tâches de {@code MetricsConfig}). Les requêtes SQL
+ * d'un thread sans compteur (diffusion du flux de modifications, tâches de démarrage) ne
+ * sont pas comptées.
+ */
+public class StatementCounter implements StatementInspector {
+    
+    private static final ThreadLocal<AtomicInteger> COUNT = new ThreadLocal<>();
+    
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger count = COUNT.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+        return sql;
+    }
+    
+    /**
+     * {@code task} exécutée avec le compteur du thread appelant, s'il en a un.
+     */
+    public static Runnable propagate(Runnable task) {
+        AtomicInteger count = COUNT.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = COUNT.get();
+            COUNT.set(count);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+    
+    /**
+     * Comme {@link #propagate(Runnable)}, pour une tâche qui rend un résultat.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        AtomicInteger count = COUNT.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = COUNT.get();
+            COUNT.set(count);
+            try {
+                return task.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+    
+    /**
+     * Ouvre un compteur à zéro sur le thread courant.
+     */
+    static AtomicInteger start() {
+        AtomicInteger count = new AtomicInteger();
+        COUNT.set(count);
+        return count;
+    }
+    
+    static void clear() {
+        COUNT.remove();
+    }
+    
+    private static void restore(AtomicInteger previous) {
+        if (previous == null) {
+            COUNT.remove();
+        } else {
+            COUNT.set(previous);
+        }
+    }
+}
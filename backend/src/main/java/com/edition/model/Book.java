@@ -1,20 +1,31 @@
 package com.edition.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_title_id", columnList = "title, id"),
+        @Index(name = "idx_books_author_id", columnList = "author, id"),
+        @Index(name = "idx_books_price_id", columnList = "price, id"),
+        @Index(name = "idx_books_year_id", columnList = "publicationYear, id"),
+        @Index(name = "idx_books_category_price", columnList = "category, price, id"),
+        @Index(name = "idx_books_category_year", columnList = "category, publicationYear, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Book {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Le titre est obligatoire")
@@ -38,6 +49,7 @@ public class Book {
     @Size(max = 1000, message = "La description ne peut pas dépasser 1000 caractères")
     private String description;
     
+    @Size(max = 255, message = "L'URL de couverture ne peut pas dépasser 255 caractères")
     private String coverUrl;
     
     @Min(value = 1450, message = "L'année de publication doit être supérieure à 1450")
@@ -47,4 +59,42 @@ public class Book {
     @Enumerated(EnumType.STRING)
     @NotNull(message = "La catégorie est obligatoire")
     private BookCategory category;
+    
+    /**
+     * Version pour le verrouillage optimiste ; sert aussi d'ETag HTTP.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
+    /**
+     * Dates de création et de dernière modification, tenues par JPA ; ignorées en entrée.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant createdAt;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant updatedAt;
+    
+    public Book(Long id, String title, String author, String isbn, Double price, String description,
+                String coverUrl, Integer publicationYear, BookCategory category) {
+        this(id, title, author, isbn, price, description, coverUrl, publicationYear, category, null);
+    }
+    
+    public Book(Long id, String title, String author, String isbn, Double price, String description,
+                String coverUrl, Integer publicationYear, BookCategory category, Long version) {
+        this(id, title, author, isbn, price, description, coverUrl, publicationYear, category, version,
+                null, null);
+    }
+    
+    @PrePersist
+    void onCreate() {
+        createdAt = Instant.now();
+        updatedAt = createdAt;
+    }
+    
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = Instant.now();
+    }
 }
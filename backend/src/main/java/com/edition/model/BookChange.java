@@ -0,0 +1,48 @@
+package com.edition.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Entrée du journal des modifications du catalogue ; une suppression y laisse une pierre
+ * tombale. L'identifiant sert de curseur au flux {@code /api/books/changes} : il est tiré
+ * d'une séquence un par un (pas de blocs), pour suivre l'ordre des modifications.
+ */
+@Entity
+@Table(name = "book_changes", indexes = {
+        @Index(name = "idx_book_changes_changed_at", columnList = "changedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookChange {
+    
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_changes_seq")
+    @SequenceGenerator(name = "book_changes_seq", sequenceName = "book_changes_seq", allocationSize = 1)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long bookId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Type type;
+    
+    @Column(nullable = false)
+    private Instant changedAt;
+    
+    public BookChange(Long bookId, Type type, Instant changedAt) {
+        this.bookId = bookId;
+        this.type = type;
+        this.changedAt = changedAt;
+    }
+}
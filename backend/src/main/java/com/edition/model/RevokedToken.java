@@ -0,0 +1,30 @@
+package com.edition.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Identifiant ({@code jti}) d'un token d'accès révoqué avant son expiration. La ligne
+ * peut être supprimée une fois {@code expiresAt} passé : le token est alors refusé de
+ * toute façon.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires", columnList = "expiresAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    
+    @Id
+    @Column(length = 36)
+    private String jti;
+    
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,32 @@
+package com.edition.repository;
+
+import com.edition.model.BookChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookChangeRepository extends JpaRepository<BookChange, Long> {
+    List<BookChange> findByIdGreaterThanOrderById(Long id, Limit limit);
+    
+    @Query("select max(c.id) from BookChange c")
+    Optional<Long> findLastId();
+    
+    Optional<BookChange> findFirstByOrderById();
+    
+    @Query("select max(c.id) from BookChange c where c.changedAt < :before")
+    Optional<Long> findLastIdBefore(@Param("before") Instant before);
+    
+    @Modifying
+    @Transactional
+    @Query("delete from BookChange c where c.id < :boundary")
+    int deleteBefore(@Param("boundary") Long boundary);
+}
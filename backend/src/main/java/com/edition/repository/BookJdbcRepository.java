@@ -0,0 +1,68 @@
+package com.edition.repository;
+
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Accès JDBC direct à la table {@code books} pour l'export, là où le contexte de
+ * persistance JPA coûterait plus qu'il n'apporte : lecture en flux par curseur.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookJdbcRepository {
+    
+    private static final String SELECT_ALL = """
+            select id, title, author, isbn, price, description, cover_url,
+                   publication_year, category, version, created_at, updated_at
+            from books
+            order by id""";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${books.export.fetch-size:500}")
+    private int fetchSize;
+    
+    /**
+     * Parcourt tout le catalogue par ordre d'identifiant, ligne par ligne depuis le curseur
+     * de la base, sans jamais garder plus d'un lot de {@code fetchSize} lignes en mémoire.
+     */
+    public void forEach(Consumer<Book> action) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_ALL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) rs -> action.accept(mapRow(rs)));
+    }
+    
+    private static Book mapRow(ResultSet rs) throws SQLException {
+        return new Book(
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getString("author"),
+                rs.getString("isbn"),
+                rs.getDouble("price"),
+                rs.getString("description"),
+                rs.getString("cover_url"),
+                rs.getObject("publication_year", Integer.class),
+                BookCategory.valueOf(rs.getString("category")),
+                rs.getLong("version"),
+                instant(rs.getTimestamp("created_at")),
+                instant(rs.getTimestamp("updated_at")));
+    }
+    
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
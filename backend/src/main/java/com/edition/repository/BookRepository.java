@@ -3,16 +3,70 @@ package com.edition.repository;
 import com.edition.model.Book;
 import com.edition.model.BookCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
-    List<Book> findByCategory(BookCategory category);
-    List<Book> findByAuthorContainingIgnoreCase(String author);
-    List<Book> findByTitleContainingIgnoreCase(String title);
+public interface BookRepository extends JpaRepository<Book, Long>,
+        JpaSpecificationExecutor<Book>, BookRepositoryCustom {
+    List<Book> findByCategoryOrderById(BookCategory category);
     Optional<Book> findByIsbn(String isbn);
     boolean existsByIsbn(String isbn);
+    
+    /**
+     * Vrai si le catalogue contient au moins un livre, sans le compter.
+     */
+    boolean existsByIdNotNull();
+    
+    /**
+     * ISBN déjà présents parmi ceux donnés, en une seule requête.
+     */
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+    
+    /**
+     * Nombre de livres par (catégorie, prix, année) : de quoi reconstruire toutes les
+     * statistiques du catalogue en une seule requête d'agrégation.
+     */
+    @Query("""
+            select b.category, b.price, b.publicationYear, count(b)
+            from Book b
+            group by b.category, b.price, b.publicationYear""")
+    List<Object[]> countByCategoryPriceAndYear();
+    
+    @Query("select b.version from Book b where b.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    /**
+     * Multiplie les prix par {@code factor} (arrondis au centime) en une seule requête.
+     * Le contexte de persistance est vidé : les entités chargées auparavant sont détachées.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Book b
+            set b.price = round(b.price * :factor, 2), b.version = b.version + 1, b.updatedAt = :now
+            where b.id in :ids""")
+    int repriceAll(@Param("ids") Collection<Long> ids, @Param("factor") double factor,
+                   @Param("now") Instant now);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Book b
+            set b.category = :category, b.version = b.version + 1, b.updatedAt = :now
+            where b.id in :ids""")
+    int recategorizeAll(@Param("ids") Collection<Long> ids, @Param("category") BookCategory category,
+                        @Param("now") Instant now);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Book b where b.id in :ids")
+    int deleteAllWithIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,51 @@
+package com.edition.repository;
+
+import com.edition.dto.BookSummary;
+import com.edition.model.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public interface BookRepositoryCustom {
+    
+    /**
+     * Projection {@link BookSummary} des livres satisfaisant {@code spec}, triés par
+     * ({@code sortKey}, id), en une seule requête limitée à {@code limit} lignes.
+     */
+    List<BookSummary> findSummaries(Specification<Book> spec, BookSortKey sortKey,
+                                    boolean descending, int limit);
+    
+    /**
+     * Parcourt les livres satisfaisant {@code spec}, triés par ({@code sortKey}, id), depuis un
+     * curseur de la base lu par lots de {@code fetchSize} lignes, dans une transaction en lecture
+     * seule. Le contexte de persistance est vidé tous les {@code fetchSize} livres : la mémoire
+     * occupée ne dépend pas du nombre de livres parcourus.
+     */
+    void forEach(Specification<Book> spec, BookSortKey sortKey, boolean descending,
+                 int fetchSize, Consumer<Book> action);
+    
+    /**
+     * Au plus {@code limit} livres satisfaisant {@code spec} d'identifiant supérieur à
+     * {@code afterId}, triés par id et verrouillés en écriture ({@code SELECT ... FOR UPDATE})
+     * jusqu'à la fin de la transaction. Doit être appelée dans une transaction.
+     */
+    List<Book> lockChunk(Specification<Book> spec, long afterId, int limit);
+    
+    /**
+     * Met à jour les seules colonnes de {@code values} (par nom d'attribut), incrémente la
+     * version et date la modification, en une requête UPDATE conditionnée par la version.
+     *
+     * @return 1 si le livre était à {@code expectedVersion}, 0 s'il a changé ou n'existe pas
+     */
+    int updateColumns(Long id, long expectedVersion, Map<String, Object> values, Instant now);
+    
+    /**
+     * Insère des livres neufs en lots JDBC (identifiants tirés de la séquence par blocs),
+     * puis les détache : ils ne restent pas dans le contexte de persistance.
+     * Doit être appelée dans une transaction.
+     */
+    void persistAll(List<Book> books);
+}
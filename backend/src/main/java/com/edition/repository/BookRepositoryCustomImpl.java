@@ -0,0 +1,140 @@
+package com.edition.repository;
+
+import com.edition.dto.BookSummary;
+import com.edition.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+class BookRepositoryCustomImpl implements BookRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookSummary> findSummaries(Specification<Book> spec, BookSortKey sortKey,
+                                           boolean descending, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookSummary> query = cb.createQuery(BookSummary.class);
+        Root<Book> book = query.from(Book.class);
+        
+        query.select(cb.construct(BookSummary.class,
+                book.get("id"), book.get("title"), book.get("author"), book.get("isbn"),
+                book.get("price"), book.get("coverUrl"), book.get("publicationYear"),
+                book.get("category")));
+        
+        where(query, book, cb, spec);
+        query.orderBy(orderBy(cb, book, sortKey, descending));
+        
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void forEach(Specification<Book> spec, BookSortKey sortKey, boolean descending,
+                        int fetchSize, Consumer<Book> action) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> book = query.from(Book.class);
+        where(query, book, cb, spec);
+        query.orderBy(orderBy(cb, book, sortKey, descending));
+        
+        // Entités en lecture seule : pas de copie conservée pour la détection des modifications
+        try (Stream<Book> books = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            int sinceClear = 0;
+            for (Iterator<Book> it = books.iterator(); it.hasNext(); ) {
+                action.accept(it.next());
+                if (++sinceClear == fetchSize) {
+                    entityManager.clear();
+                    sinceClear = 0;
+                }
+            }
+        }
+    }
+    
+    @Override
+    public List<Book> lockChunk(Specification<Book> spec, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> book = query.from(Book.class);
+        Specification<Book> after = (root, q, builder) -> builder.greaterThan(root.get("id"), afterId);
+        where(query, book, cb, after.and(spec));
+        query.orderBy(orderBy(cb, book, BookSortKey.ID, false));
+        
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    @Override
+    @Transactional
+    public int updateColumns(Long id, long expectedVersion, Map<String, Object> values, Instant now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Book> update = cb.createCriteriaUpdate(Book.class);
+        Root<Book> book = update.from(Book.class);
+        values.forEach((attribute, value) -> {
+            Path<Object> path = book.get(attribute);
+            if (value == null) {
+                update.<Object>set(path, cb.nullLiteral(path.getJavaType()));
+            } else {
+                update.set(path, value);
+            }
+        });
+        Path<Long> version = book.get("version");
+        update.set(version, cb.sum(version, 1L));
+        update.set(book.<Instant>get("updatedAt"), now);
+        update.where(cb.equal(book.get("id"), id), cb.equal(version, expectedVersion));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+    
+    @Override
+    public void persistAll(List<Book> books) {
+        books.forEach(entityManager::persist);
+        entityManager.flush();
+        books.forEach(entityManager::detach);
+    }
+    
+    private static void where(CriteriaQuery<?> query, Root<Book> book, CriteriaBuilder cb,
+                              Specification<Book> spec) {
+        Predicate predicate = spec == null ? null : spec.toPredicate(book, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+    
+    private static List<Order> orderBy(CriteriaBuilder cb, Root<Book> book,
+                                       BookSortKey sortKey, boolean descending) {
+        List<Order> orders = new ArrayList<>(2);
+        if (sortKey != BookSortKey.ID) {
+            orders.add(descending ? cb.desc(book.get(sortKey.attribute()))
+                    : cb.asc(book.get(sortKey.attribute())));
+        }
+        orders.add(descending ? cb.desc(book.get("id")) : cb.asc(book.get("id")));
+        return orders;
+    }
+}
@@ -0,0 +1,46 @@
+package com.edition.repository;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Clés de tri du catalogue. Chaque clé sait relire sa valeur depuis un curseur de pagination.
+ */
+public enum BookSortKey {
+    ID("id", Long::valueOf),
+    TITLE("title", Function.identity()),
+    AUTHOR("author", Function.identity()),
+    PRICE("price", Double::valueOf),
+    PUBLICATION_YEAR("publicationYear", Integer::valueOf);
+    
+    private final String attribute;
+    private final Function<String, ? extends Comparable<?>> parser;
+    
+    BookSortKey(String attribute, Function<String, ? extends Comparable<?>> parser) {
+        this.attribute = attribute;
+        this.parser = parser;
+    }
+    
+    public String attribute() {
+        return attribute;
+    }
+    
+    public Comparable<?> parse(String value) {
+        return value == null ? null : parser.apply(value);
+    }
+    
+    /**
+     * @param name nom d'attribut ({@code publicationYear}) ou de constante, sans tenir compte de la casse
+     */
+    public static BookSortKey from(String name) {
+        if (name == null || name.isBlank()) {
+            return ID;
+        }
+        for (BookSortKey key : values()) {
+            if (key.attribute.equalsIgnoreCase(name) || key.name().equals(name.toUpperCase(Locale.ROOT))) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("Tri non supporté: " + name);
+    }
+}
@@ -0,0 +1,100 @@
+package com.edition.repository;
+
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Prédicats composables sur {@link Book}. Un critère null donne un prédicat neutre,
+ * ce qui permet de les combiner librement avec {@link Specification#allOf}.
+ */
+public final class BookSpecifications {
+    
+    private BookSpecifications() {
+    }
+    
+    public static Specification<Book> hasCategory(BookCategory category) {
+        return (root, query, cb) -> category == null ? null : cb.equal(root.get("category"), category);
+    }
+    
+    /**
+     * Catégorie différente de {@code category} (aucune restriction si null).
+     */
+    public static Specification<Book> notInCategory(BookCategory category) {
+        return (root, query, cb) -> category == null ? null : cb.notEqual(root.get("category"), category);
+    }
+    
+    /**
+     * Auteur exactement égal à {@code author}, sans passer par l'index de recherche.
+     */
+    public static Specification<Book> hasAuthor(String author) {
+        return (root, query, cb) -> author == null || author.isBlank() ? null : cb.equal(root.get("author"), author);
+    }
+    
+    public static Specification<Book> priceBetween(Double min, Double max) {
+        return (root, query, cb) -> between(cb, root.get("price"), min, max);
+    }
+    
+    public static Specification<Book> publishedBetween(Integer from, Integer to) {
+        return (root, query, cb) -> between(cb, root.get("publicationYear"), from, to);
+    }
+    
+    /**
+     * Restreint aux identifiants donnés (typiquement les résultats de l'index de recherche).
+     */
+    public static Specification<Book> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> {
+            if (ids == null) {
+                return null;
+            }
+            return ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+        };
+    }
+    
+    /**
+     * Prédicat de pagination par clé : les lignes situées après ({@code key}, {@code id})
+     * dans l'ordre de tri. Les valeurs nulles sont considérées comme les plus petites,
+     * comme le font H2 et MariaDB.
+     */
+    public static Specification<Book> after(BookSortKey key, boolean descending,
+                                            Comparable<?> value, long id) {
+        return (root, query, cb) -> {
+            Path<Long> idPath = root.get("id");
+            Predicate idAfter = descending ? cb.lessThan(idPath, id) : cb.greaterThan(idPath, id);
+            if (key == BookSortKey.ID) {
+                return idAfter;
+            }
+            Path<Comparable<Object>> keyPath = root.get(key.attribute());
+            if (value == null) {
+                Predicate nullTie = cb.and(cb.isNull(keyPath), idAfter);
+                return descending ? nullTie : cb.or(nullTie, cb.isNotNull(keyPath));
+            }
+            @SuppressWarnings("unchecked")
+            Comparable<Object> bound = (Comparable<Object>) value;
+            Predicate tie = cb.and(cb.equal(keyPath, bound), idAfter);
+            Predicate beyond = descending ? cb.lessThan(keyPath, bound) : cb.greaterThan(keyPath, bound);
+            return descending ? cb.or(beyond, tie, cb.isNull(keyPath)) : cb.or(beyond, tie);
+        };
+    }
+    
+    private static <T extends Comparable<? super T>> Predicate between(CriteriaBuilder cb,
+                                                                     Expression<T> path,
+                                                                     T min, T max) {
+        if (min != null && max != null) {
+            return cb.between(path, min, max);
+        }
+        if (min != null) {
+            return cb.greaterThanOrEqualTo(path, min);
+        }
+        if (max != null) {
+            return cb.lessThanOrEqualTo(path, max);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.edition.repository;
+
+import com.edition.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    /**
+     * Transaction d'écriture : lue sur le primaire même avec des réplicas, un token tout juste
+     * délivré ou utilisé doit être vu tel quel.
+     */
+    @Transactional
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+    
+    /**
+     * Marque le token comme utilisé s'il ne l'était pas encore.
+     *
+     * @return 1 si cet appel l'a marqué, 0 s'il avait déjà servi
+     */
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken t set t.used = true where t.id = :id and t.used = false")
+    int markUsed(@Param("id") Long id);
+    
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken t where t.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") String familyId);
+    
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
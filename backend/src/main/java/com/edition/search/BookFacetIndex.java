@@ -0,0 +1,259 @@
+package com.edition.search;
+
+import com.edition.dto.FacetCountsResponse;
+import com.edition.event.BookChangedEvent;
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de facettes en mémoire : un bitmap compressé (Roaring) des identifiants de livres
+ * par catégorie, par décennie de publication et par tranche de prix.
+ * <p>
+ * Les valeurs choisies dans une facette sont combinées en OU (union des bitmaps), les
+ * facettes entre elles en ET (intersection) ; chaque compte est la cardinalité d'une
+ * intersection, sans parcourir les livres.
+ * <p>
+ * L'index est construit au démarrage par {@code BookService} puis tenu à jour par les
+ * {@link BookChangedEvent}. Les bitmaps portent des entiers 32 bits : un livre d'identifiant
+ * supérieur à {@link Integer#MAX_VALUE} n'est pas indexé.
+ */
+@Slf4j
+@Component
+public class BookFacetIndex {
+    
+    /**
+     * Valeurs retenues pour chaque facette ; une facette sans valeur ne filtre pas.
+     */
+    public record Selection(Set<BookCategory> categories, Set<Integer> decades, Set<String> prices) {
+    
+        public static Selection of(Collection<BookCategory> categories, Collection<Integer> decades,
+                                   Collection<String> prices) {
+            return new Selection(
+                    categories == null ? Set.of() : Set.copyOf(categories),
+                    decades == null ? Set.of() : Set.copyOf(decades),
+                    prices == null ? Set.of() : Set.copyOf(prices));
+        }
+    }
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final double[] priceBounds;
+    private final List<String> priceLabels;
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<BookCategory, RoaringBitmap> categories = new EnumMap<>(BookCategory.class);
+    private final NavigableMap<Integer, RoaringBitmap> decades = new TreeMap<>();
+    private final Map<String, RoaringBitmap> prices = new LinkedHashMap<>();
+    
+    /**
+     * @param priceBounds bornes des tranches de prix : {@code 10,20,50} donne les tranches
+     *                    {@code 0-10}, {@code 10-20}, {@code 20-50} et {@code 50+}, borne
+     *                    inférieure incluse
+     */
+    public BookFacetIndex(@Value("${books.facets.price-bounds:10,20,50}") double[] priceBounds) {
+        this.priceBounds = priceBounds.clone();
+        Arrays.sort(this.priceBounds);
+        this.priceLabels = priceLabels(this.priceBounds);
+        for (BookCategory category : BookCategory.values()) {
+            categories.put(category, new RoaringBitmap());
+        }
+        priceLabels.forEach(label -> prices.put(label, new RoaringBitmap()));
+    }
+    
+    /**
+     * Reconstruit l'index à partir du catalogue complet.
+     */
+    public void rebuild(Collection<Book> books) {
+        lock.writeLock().lock();
+        try {
+            all.clear();
+            categories.values().forEach(RoaringBitmap::clear);
+            decades.clear();
+            prices.values().forEach(RoaringBitmap::clear);
+            books.forEach(this::add);
+            all.runOptimize();
+            categories.values().forEach(RoaringBitmap::runOptimize);
+            decades.values().forEach(RoaringBitmap::runOptimize);
+            prices.values().forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Index de facettes construit: {} livres", books.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.bookId());
+            if (!event.isDeletion()) {
+                add(event.current());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Compte les livres par valeur de facette.
+     *
+     * @param restrictTo livres déjà retenus par un autre critère (recherche texte), null pour
+     *                   tout le catalogue
+     * @throws IllegalArgumentException si une décennie ou une tranche de prix est invalide
+     */
+    public FacetCountsResponse count(Selection selection, Set<Long> restrictTo) {
+        for (Integer decade : selection.decades()) {
+            if (decade == null || decade % 10 != 0) {
+                throw new IllegalArgumentException("Décennie invalide: " + decade);
+            }
+        }
+        for (String price : selection.prices()) {
+            if (!priceLabels.contains(price)) {
+                throw new IllegalArgumentException("Tranche de prix inconnue: " + price
+                        + " (attendu: " + String.join(", ", priceLabels) + ")");
+            }
+        }
+        RoaringBitmap scope = restrictTo == null ? null : bitmapOf(restrictTo);
+    
+        lock.readLock().lock();
+        try {
+            RoaringBitmap base = scope == null ? all : RoaringBitmap.and(all, scope);
+            RoaringBitmap byCategory = union(categories, selection.categories());
+            RoaringBitmap byDecade = union(decades, selection.decades());
+            RoaringBitmap byPrice = union(prices, selection.prices());
+            return new FacetCountsResponse(
+                    intersect(base, byCategory, byDecade, byPrice).getLongCardinality(),
+                    counts(categories, intersect(base, byDecade, byPrice)),
+                    counts(decades, intersect(base, byCategory, byPrice)),
+                    counts(prices, intersect(base, byCategory, byDecade)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void add(Book book) {
+        int key = key(book.getId());
+        if (key == -1) {
+            log.warn("Livre {} non indexé dans les facettes: identifiant hors limites", book.getId());
+            return;
+        }
+        all.add(key);
+        if (book.getCategory() != null) {
+            categories.get(book.getCategory()).add(key);
+        }
+        if (book.getPublicationYear() != null) {
+            decades.computeIfAbsent(Math.floorDiv(book.getPublicationYear(), 10) * 10,
+                    decade -> new RoaringBitmap()).add(key);
+        }
+        if (book.getPrice() != null) {
+            prices.get(priceLabels.get(priceBucket(book.getPrice()))).add(key);
+        }
+    }
+    
+    private void remove(Long id) {
+        int key = key(id);
+        if (!all.contains(key)) {
+            return;
+        }
+        all.remove(key);
+        categories.values().forEach(bitmap -> bitmap.remove(key));
+        prices.values().forEach(bitmap -> bitmap.remove(key));
+        Iterator<RoaringBitmap> byDecade = decades.values().iterator();
+        while (byDecade.hasNext()) {
+            RoaringBitmap bitmap = byDecade.next();
+            bitmap.remove(key);
+            if (bitmap.isEmpty()) {
+                byDecade.remove();
+            }
+        }
+    }
+    
+    private int priceBucket(double price) {
+        int bucket = 0;
+        while (bucket < priceBounds.length && price >= priceBounds[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+    
+    /**
+     * Union des bitmaps des valeurs retenues ; null si la facette ne filtre pas.
+     */
+    private static <K> RoaringBitmap union(Map<K, RoaringBitmap> facet, Set<K> selected) {
+        if (selected.isEmpty()) {
+            return null;
+        }
+        RoaringBitmap union = new RoaringBitmap();
+        for (K value : selected) {
+            RoaringBitmap bitmap = facet.get(value);
+            if (bitmap != null) {
+                union.or(bitmap);
+            }
+        }
+        return union;
+    }
+    
+    private static RoaringBitmap intersect(RoaringBitmap base, RoaringBitmap... filters) {
+        RoaringBitmap result = base;
+        for (RoaringBitmap filter : filters) {
+            if (filter != null) {
+                result = RoaringBitmap.and(result, filter);
+            }
+        }
+        return result;
+    }
+    
+    private static <K> Map<K, Long> counts(Map<K, RoaringBitmap> facet, RoaringBitmap scope) {
+        Map<K, Long> counts = new LinkedHashMap<>();
+        facet.forEach((value, bitmap) -> counts.put(value, (long) RoaringBitmap.andCardinality(scope, bitmap)));
+        return counts;
+    }
+    
+    private static RoaringBitmap bitmapOf(Set<Long> ids) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (Long id : ids) {
+            int key = key(id);
+            if (key != -1) {
+                bitmap.add(key);
+            }
+        }
+        return bitmap;
+    }
+    
+    /**
+     * Identifiant en entier 32 bits, -1 s'il est hors limites.
+     */
+    private static int key(Long id) {
+        return id == null || id < 0 || id > Integer.MAX_VALUE ? -1 : id.intValue();
+    }
+    
+    private static List<String> priceLabels(double[] bounds) {
+        List<String> labels = new ArrayList<>(bounds.length + 1);
+        String lower = "0";
+        for (double bound : bounds) {
+            String upper = BigDecimal.valueOf(bound).stripTrailingZeros().toPlainString();
+            labels.add(lower + "-" + upper);
+            lower = upper;
+        }
+        labels.add(lower + "+");
+        return List.copyOf(labels);
+    }
+}
@@ -0,0 +1,228 @@
+package com.edition.search;
+
+import com.edition.event.BookChangedEvent;
+import com.edition.model.Book;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire sur le titre, l'auteur, la description et l'ISBN des livres.
+ * <p>
+ * Chaque champ a son propre dictionnaire trié de termes normalisés ; un terme de requête
+ * correspond aux termes identiques (score plein) et à ceux dont il est le préfixe
+ * (score réduit), ce qui sert aussi l'autocomplétion. Les termes d'une requête sont
+ * combinés en ET et les résultats classés par score décroissant.
+ * <p>
+ * L'index est construit au démarrage par {@code BookService} puis tenu à jour par les
+ * {@link BookChangedEvent}.
+ */
+@Slf4j
+@Component
+public class BookSearchIndex {
+    
+    public enum Field {
+        TITLE(4f), AUTHOR(3f), ISBN(5f), DESCRIPTION(1f);
+        
+        private final float weight;
+        
+        Field(float weight) {
+            this.weight = weight;
+        }
+    }
+    
+    /** Longueur minimale d'un préfixe avant de l'étendre aux termes plus longs. */
+    private static final int MIN_PREFIX_LENGTH = 2;
+    /**
+     * Nombre maximal de termes parcourus pour l'expansion d'un préfixe dans une recherche
+     * classée ; {@link #matching} n'en a pas, ses résultats servent de filtre et de comptes.
+     */
+    private static final int MAX_PREFIX_EXPANSION = 128;
+    private static final float PREFIX_FACTOR = 0.5f;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Field, NavigableMap<String, Set<Long>>> postings = new EnumMap<>(Field.class);
+    private final Map<Long, Map<Field, Set<String>>> documents = new HashMap<>();
+    
+    {
+        for (Field field : Field.values()) {
+            postings.put(field, new TreeMap<>());
+        }
+    }
+    
+    /**
+     * Reconstruit l'index à partir du catalogue complet.
+     */
+    public void rebuild(Collection<Book> books) {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(Map::clear);
+            documents.clear();
+            books.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Index de recherche construit: {} livres", books.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.bookId());
+            if (!event.isDeletion()) {
+                add(event.current());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Recherche sur tous les champs.
+     *
+     * @return identifiants des livres, du plus pertinent au moins pertinent
+     */
+    public List<Long> search(String query, int limit) {
+        return search(query, Set.of(Field.values()), limit);
+    }
+    
+    public List<Long> search(String query, Collection<Field> fields, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Map<Long, Float> scores = scores(query, fields, MAX_PREFIX_EXPANSION);
+        return scores.isEmpty() ? List.of() : topK(scores, limit);
+    }
+    
+    /**
+     * Tous les livres correspondant à la requête sur les champs donnés, sans classement.
+     * Un préfixe est étendu à tous les termes qui le prolongent, quel que soit leur nombre.
+     */
+    public Set<Long> matching(String query, Collection<Field> fields) {
+        return scores(query, fields, Integer.MAX_VALUE).keySet();
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private Map<Long, Float> scores(String query, Collection<Field> fields, int maxExpansion) {
+        List<String> terms = TextNormalizer.tokenize(query);
+        if (terms.isEmpty()) {
+            return Map.of();
+        }
+        
+        Map<Long, Float> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String term : terms) {
+                Map<Long, Float> termScores = score(term, fields, maxExpansion);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return scores;
+    }
+    
+    private Map<Long, Float> score(String term, Collection<Field> fields, int maxExpansion) {
+        Map<Long, Float> scores = new HashMap<>();
+        for (Field field : fields) {
+            NavigableMap<String, Set<Long>> dictionary = postings.get(field);
+            Map<Long, Float> fieldScores = new HashMap<>();
+            if (term.length() >= MIN_PREFIX_LENGTH) {
+                float weight = field.weight * PREFIX_FACTOR;
+                int expanded = 0;
+                for (Set<Long> ids
+                        : dictionary.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+                    if (++expanded > maxExpansion) {
+                        break;
+                    }
+                    ids.forEach(id -> fieldScores.put(id, weight));
+                }
+            }
+            Set<Long> exact = dictionary.get(term);
+            if (exact != null) {
+                exact.forEach(id -> fieldScores.put(id, field.weight));
+            }
+            fieldScores.forEach((id, score) -> scores.merge(id, score, Float::sum));
+        }
+        return scores;
+    }
+    
+    private static List<Long> topK(Map<Long, Float> scores, int limit) {
+        Comparator<Map.Entry<Long, Float>> ranking = Map.Entry.<Long, Float>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Float>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Float>> heap = new PriorityQueue<>(limit + 1, ranking);
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Long> ids = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ids.add(heap.poll().getKey());
+        }
+        return ids.reversed();
+    }
+    
+    private void add(Book book) {
+        Map<Field, Set<String>> terms = new EnumMap<>(Field.class);
+        terms.put(Field.TITLE, new HashSet<>(TextNormalizer.tokenize(book.getTitle())));
+        terms.put(Field.AUTHOR, new HashSet<>(TextNormalizer.tokenize(book.getAuthor())));
+        terms.put(Field.DESCRIPTION, new HashSet<>(TextNormalizer.tokenize(book.getDescription())));
+        Set<String> isbnTerms = new HashSet<>(TextNormalizer.tokenize(book.getIsbn()));
+        if (book.getIsbn() != null) {
+            isbnTerms.add(book.getIsbn().replaceAll("\\D", ""));
+        }
+        terms.put(Field.ISBN, isbnTerms);
+        
+        terms.forEach((field, fieldTerms) -> fieldTerms.forEach(term ->
+                postings.get(field).computeIfAbsent(term, t -> new HashSet<>()).add(book.getId())));
+        documents.put(book.getId(), terms);
+    }
+    
+    private void remove(Long id) {
+        Map<Field, Set<String>> terms = documents.remove(id);
+        if (terms == null) {
+            return;
+        }
+        terms.forEach((field, fieldTerms) -> fieldTerms.forEach(term -> {
+            NavigableMap<String, Set<Long>> dictionary = postings.get(field);
+            Set<Long> ids = dictionary.get(term);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                dictionary.remove(term);
+            }
+        }));
+    }
+}
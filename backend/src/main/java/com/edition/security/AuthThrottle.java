@@ -0,0 +1,72 @@
+package com.edition.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Limite le débit des tentatives de connexion et d'inscription, avant tout calcul BCrypt :
+ * un seau par adresse IP (connexion et inscription), débité à chaque tentative, et un par nom
+ * d'utilisateur (sans distinction de casse), débité seulement par les échecs de connexion.
+ * Le second arrête aussi une attaque répartie sur de nombreuses adresses contre un même
+ * compte ; en contrepartie, tant qu'elle dure, le titulaire est refusé lui aussi pendant
+ * {@code security.auth-throttle.username.refill-period} au plus après chaque échec.
+ * Les connexions réussies ne consomment rien de ce second seau.
+ * Chaque refus incrémente {@code auth.throttled} (tag {@code scope}).
+ */
+@Component
+public class AuthThrottle {
+    
+    private final TokenBucketLimiter byIp;
+    private final TokenBucketLimiter byUsername;
+    private final MeterRegistry meterRegistry;
+    
+    public AuthThrottle(@Value("${security.auth-throttle.ip.capacity:20}") int ipCapacity,
+                        @Value("${security.auth-throttle.ip.refill-period:PT1M}") Duration ipRefillPeriod,
+                        @Value("${security.auth-throttle.username.capacity:5}") int usernameCapacity,
+                        @Value("${security.auth-throttle.username.refill-period:PT1M}") Duration usernameRefillPeriod,
+                        @Value("${security.auth-throttle.max-keys:100000}") long maxKeys,
+                        MeterRegistry meterRegistry) {
+        this.byIp = new TokenBucketLimiter(ipCapacity, ipRefillPeriod, maxKeys);
+        this.byUsername = new TokenBucketLimiter(usernameCapacity, usernameRefillPeriod, maxKeys);
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * @return l'attente avant de pouvoir réessayer, vide si la tentative est autorisée
+     */
+    public Optional<Duration> checkLogin(String ip, String username) {
+        return check("ip", byIp, ip).or(() -> throttled("username", byUsername.peek(key(username))));
+    }
+    
+    /**
+     * Débite le seau du nom d'utilisateur après des identifiants refusés.
+     */
+    public void loginFailed(String username) {
+        byUsername.tryAcquire(key(username));
+    }
+    
+    public Optional<Duration> checkRegister(String ip) {
+        return check("ip", byIp, ip);
+    }
+    
+    private Optional<Duration> check(String scope, TokenBucketLimiter limiter, String key) {
+        return throttled(scope, limiter.tryAcquire(key));
+    }
+    
+    private Optional<Duration> throttled(String scope, Duration wait) {
+        if (wait.isZero()) {
+            return Optional.empty();
+        }
+        meterRegistry.counter("auth.throttled", "scope", scope).increment();
+        return Optional.of(wait);
+    }
+    
+    private static String key(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+}
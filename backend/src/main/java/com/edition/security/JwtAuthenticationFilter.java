@@ -1,12 +1,16 @@
 package com.edition.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,6 +18,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -21,6 +26,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtUtils jwtUtils;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final RevocationList revocationList;
+    
+    /**
+     * Si vrai, les rôles signés dans le token suffisent à construire l'utilisateur, sans
+     * aucune lecture en base ; un changement de rôle n'est alors visible qu'au token suivant.
+     */
+    @Value("${security.jwt.trust-role-claims:false}")
+    private boolean trustRoleClaims;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -33,9 +47,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
             
-            if (jwtUtils.validateToken(token)) {
-                String username = jwtUtils.getUsernameFromToken(token);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwtUtils.verify(token).orElse(null);
+            if (claims != null && !revocationList.isRevoked(claims.getId())) {
+                UserDetails userDetails = resolvePrincipal(claims);
                 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
@@ -54,4 +68,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+    
+    private UserDetails resolvePrincipal(Claims claims) {
+        String username = claims.getSubject();
+        if (trustRoleClaims && claims.get(JwtUtils.ROLES_CLAIM) instanceof List<?> roles) {
+            return new User(username, "", roles.stream()
+                    .map(role -> new SimpleGrantedAuthority(role.toString()))
+                    .toList());
+        }
+        return principalCache.get(username, userDetailsService::loadUserByUsername);
+    }
 }
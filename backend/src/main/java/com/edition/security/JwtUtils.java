@@ -1,61 +1,147 @@
 package com.edition.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Component
 public class JwtUtils {
     
+    public static final String ROLES_CLAIM = "roles";
+    
+    private static final RateLimitedLogger RATE_LIMITED_LOG =
+            new RateLimitedLogger(log, Duration.ofSeconds(10));
+    
     @Value("${jwt.secret}")
     private String jwtSecret;
     
     @Value("${jwt.expiration}")
     private int jwtExpiration;
     
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheSize;
+    
+    private Key signingKey;
+    private JwtParser parser;
+    
+    /**
+     * Tokens déjà vérifiés, indexés par signature, conservés jusqu'à leur expiration.
+     */
+    private Cache<String, VerifiedToken> verifiedTokens;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String signature, VerifiedToken verified, long now) {
+                        long remainingMillis = verified.expiresAt() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String signature, VerifiedToken verified,
+                                                  long now, long currentDuration) {
+                        return expireAfterCreate(signature, verified, now);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String signature, VerifiedToken verified,
+                                                long now, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
     
     public String generateToken(UserDetails userDetails) {
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
+                .claim(ROLES_CLAIM, roles)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
-    public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
-    
-    public boolean validateToken(String token) {
+    /**
+     * Vérifie le token en un seul parsing et renvoie ses claims.
+     * Un token déjà vérifié et non expiré est servi depuis le cache sans recalcul de signature.
+     *
+     * @return les claims, ou vide si le token est invalide ou expiré
+     */
+    public Optional<Claims> verify(String token) {
+        int signatureStart = token == null ? -1 : token.lastIndexOf('.');
+        if (signatureStart <= 0) {
+            RATE_LIMITED_LOG.warn("malformed", "Token JWT malformé");
+            return Optional.empty();
+        }
+        String signature = token.substring(signatureStart + 1);
+        String signedContent = token.substring(0, signatureStart);
+        
+        VerifiedToken cached = verifiedTokens.getIfPresent(signature);
+        if (cached != null && cached.signedContent().equals(signedContent)
+                && cached.expiresAt() > System.currentTimeMillis()) {
+            return Optional.of(cached.claims());
+        }
+        
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (MalformedJwtException e) {
-            System.err.println("Token JWT malformé: " + e.getMessage());
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            long expiresAt = claims.getExpiration() == null
+                    ? Long.MAX_VALUE : claims.getExpiration().getTime();
+            verifiedTokens.put(signature, new VerifiedToken(signedContent, claims, expiresAt));
+            return Optional.of(claims);
         } catch (ExpiredJwtException e) {
-            System.err.println("Token JWT expiré: " + e.getMessage());
+            RATE_LIMITED_LOG.warn("expired", "Token JWT expiré: {}", e.getMessage());
+        } catch (MalformedJwtException e) {
+            RATE_LIMITED_LOG.warn("malformed", "Token JWT malformé: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
-            System.err.println("Token JWT non supporté: " + e.getMessage());
+            RATE_LIMITED_LOG.warn("unsupported", "Token JWT non supporté: {}", e.getMessage());
+        } catch (JwtException e) {
+            RATE_LIMITED_LOG.warn("invalid", "Token JWT invalide: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
-            System.err.println("Token JWT vide: " + e.getMessage());
+            RATE_LIMITED_LOG.warn("empty", "Token JWT vide: {}", e.getMessage());
         }
-        return false;
+        return Optional.empty();
+    }
+    
+    public String getUsernameFromToken(String token) {
+        return verify(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new JwtException("Token JWT invalide"));
+    }
+    
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
+    
+    private record VerifiedToken(String signedContent, Claims claims, long expiresAt) {
     }
 }
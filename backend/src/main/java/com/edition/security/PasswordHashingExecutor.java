@@ -0,0 +1,120 @@
+package com.edition.security;
+
+import com.edition.metrics.StatementCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Exécute les opérations BCrypt (connexion, inscription) sur un pool dédié et borné,
+ * pour qu'une rafale de connexions n'occupe pas les threads qui servent le catalogue.
+ * <p>
+ * Au-delà de {@code security.password-hashing.queue-capacity} tâches en attente, la
+ * soumission échoue immédiatement avec {@link RejectedExecutionException}.
+ * Métriques : {@code password.hashing.duration} et {@code password.hashing.queue.wait}
+ * (par opération), {@code password.hashing.queued}, {@code password.hashing.rejected}.
+ */
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+    
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+    
+    public PasswordHashingExecutor(
+            @Value("${security.password-hashing.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+            int threads,
+            @Value("${security.password-hashing.queue-capacity:100}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.meterRegistry = meterRegistry;
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Opérations BCrypt refusées, file d'attente pleine")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queued", executor, e -> e.getQueue().size())
+                .description("Opérations BCrypt en attente d'un thread")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Exécute {@code task} sur le pool et attend son résultat. Les exceptions levées
+     * par la tâche sont relancées telles quelles.
+     *
+     * @throws RejectedExecutionException si la file d'attente est pleine
+     */
+    public <T> T execute(String operation, Supplier<T> task) {
+        // Le chargement de l'utilisateur fait partie de la requête HTTP qui attend ce résultat
+        Supplier<T> counted = StatementCounter.propagate(task);
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                timer("password.hashing.queue.wait", "Attente avant hachage", operation)
+                        .record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return counted.get();
+                } finally {
+                    timer("password.hashing.duration", "Durée des opérations BCrypt", operation)
+                            .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Attente du hachage interrompue", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+    
+    private Timer timer(String name, String description, String operation) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    private static ThreadFactory threadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
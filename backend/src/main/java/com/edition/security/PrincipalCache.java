@@ -0,0 +1,58 @@
+package com.edition.security;
+
+import com.edition.dto.CacheStatsResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache borné des utilisateurs authentifiés par JWT, pour éviter une requête
+ * {@code findByUsername} à chaque appel. Les entrées expirent après
+ * {@code security.principal-cache.ttl} et sont invalidées par {@code UserService}
+ * quand un utilisateur change.
+ */
+@Component
+public class PrincipalCache {
+    
+    private final Cache<String, UserDetails> cache;
+    
+    public PrincipalCache(@Value("${security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${security.principal-cache.ttl:PT5M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+    
+    /**
+     * Renvoie l'utilisateur en cache ou le charge avec {@code loader}.
+     * Le mot de passe n'est pas conservé en mémoire.
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        return cache.get(username, name -> withoutPassword(loader.apply(name)));
+    }
+    
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+    
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+    
+    public CacheStatsResponse stats() {
+        return CacheStatsResponse.of(cache.estimatedSize(), cache.stats());
+    }
+    
+    private static UserDetails withoutPassword(UserDetails user) {
+        return new User(user.getUsername(), "", user.isEnabled(), user.isAccountNonExpired(),
+                user.isCredentialsNonExpired(), user.isAccountNonLocked(), user.getAuthorities());
+    }
+}
@@ -0,0 +1,70 @@
+package com.edition.security;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journalise au plus un message par catégorie et par intervalle ; les messages
+ * supprimés entre-temps sont comptés et signalés avec le message suivant.
+ * Évite qu'un flot de tokens invalides inonde les logs.
+ */
+public final class RateLimitedLogger {
+    
+    private final Logger delegate;
+    private final long intervalNanos;
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+    
+    public RateLimitedLogger(Logger delegate, Duration interval) {
+        this.delegate = delegate;
+        this.intervalNanos = interval.toNanos();
+    }
+    
+    public void warn(String category, String message, Object... args) {
+        if (!delegate.isWarnEnabled()) {
+            return;
+        }
+        Window window = windows.computeIfAbsent(category, c -> new Window());
+        long suppressed = window.tryAcquire(System.nanoTime(), intervalNanos);
+        if (suppressed < 0) {
+            return;
+        }
+        if (suppressed > 0) {
+            delegate.warn(message + " ({} messages similaires supprimés)", append(args, suppressed));
+        } else {
+            delegate.warn(message, args);
+        }
+    }
+    
+    private static Object[] append(Object[] args, Object value) {
+        Object[] extended = new Object[args.length + 1];
+        System.arraycopy(args, 0, extended, 0, args.length);
+        extended[args.length] = value;
+        return extended;
+    }
+    
+    private static final class Window {
+        private final AtomicLong lastLogged = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong suppressed = new AtomicLong();
+        
+        /**
+         * @return le nombre de messages supprimés depuis le dernier log, ou -1 si
+         *         ce message doit lui-même être supprimé
+         */
+        long tryAcquire(long now, long intervalNanos) {
+            long last = lastLogged.get();
+            if (last != Long.MIN_VALUE && now - last < intervalNanos) {
+                suppressed.incrementAndGet();
+                return -1;
+            }
+            if (!lastLogged.compareAndSet(last, now)) {
+                suppressed.incrementAndGet();
+                return -1;
+            }
+            return suppressed.getAndSet(0);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.edition.security;
+
+import com.edition.model.RevokedToken;
+import com.edition.repository.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tokens d'accès révoqués avant leur expiration (déconnexion). La table
+ * {@code revoked_tokens} fait foi ; un filtre de Bloom en mémoire répond sans requête
+ * pour la quasi-totalité des tokens, qui ne sont pas révoqués. Seul un résultat positif
+ * du filtre, vraie révocation ou faux positif, est confirmé en base.
+ * <p>
+ * Le filtre est reconstruit toutes les {@code jwt.revocation.reload-interval}, après purge
+ * des révocations expirées : il reste petit et reprend les révocations faites par les
+ * autres instances.
+ */
+@Slf4j
+@Component
+public class RevocationList {
+    
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    /** Sérialise révocations et reconstructions, pour qu'aucune révocation ne manque au filtre. */
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    /** Nul tant que le filtre n'a pas été chargé : chaque vérification passe alors par la base. */
+    private volatile BloomFilter filter;
+    
+    public RevocationList(RevokedTokenRepository revokedTokenRepository,
+                          @Value("${jwt.revocation.expected-entries:100000}") int expectedEntries,
+                          @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+    
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(jti);
+    }
+    
+    public void revoke(String jti, Instant expiresAt) {
+        lock.lock();
+        try {
+            revokedTokenRepository.save(new RevokedToken(jti, expiresAt));
+            BloomFilter current = filter;
+            if (current != null) {
+                current.add(jti);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocation.reload-interval:PT5M}",
+            initialDelayString = "${jwt.revocation.reload-interval:PT5M}")
+    public void reload() {
+        lock.lock();
+        try {
+            Instant now = Instant.now();
+            int purged = revokedTokenRepository.deleteExpired(now);
+            List<String> active = revokedTokenRepository.findActiveJtis(now);
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, 2 * active.size()), falsePositiveRate);
+            active.forEach(rebuilt::add);
+            filter = rebuilt;
+            log.debug("Liste de révocation rechargée: {} tokens révoqués, {} expirés purgés", active.size(), purged);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.edition.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Un seau à jetons par clé (adresse IP, nom d'utilisateur) : {@code capacity} jetons au
+ * plus, remplis en continu à raison de {@code capacity} par {@code refillPeriod}.
+ * Les seaux inutilisés pendant une période complète sont oubliés (ils seraient pleins).
+ */
+public final class TokenBucketLimiter {
+    
+    private final Cache<String, Bucket> buckets;
+    private final double capacity;
+    private final double nanosPerToken;
+    
+    public TokenBucketLimiter(int capacity, Duration refillPeriod, long maxKeys) {
+        this.capacity = capacity;
+        this.nanosPerToken = (double) refillPeriod.toNanos() / capacity;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(refillPeriod)
+                .build();
+    }
+    
+    /**
+     * Prend un jeton dans le seau de {@code key}.
+     *
+     * @return {@link Duration#ZERO} si le jeton a été pris, sinon l'attente avant le prochain
+     */
+    public Duration tryAcquire(String key) {
+        long wait = buckets.get(key, k -> new Bucket(capacity)).tryAcquire(System.nanoTime());
+        return Duration.ofNanos(wait);
+    }
+    
+    /**
+     * Comme {@link #tryAcquire}, sans prendre de jeton.
+     *
+     * @return {@link Duration#ZERO} si un jeton est disponible, sinon l'attente avant le prochain
+     */
+    public Duration peek(String key) {
+        Bucket bucket = buckets.getIfPresent(key);
+        return bucket == null ? Duration.ZERO : Duration.ofNanos(bucket.peek(System.nanoTime()));
+    }
+    
+    private final class Bucket {
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+        
+        Bucket(double tokens) {
+            this.tokens = tokens;
+        }
+        
+        synchronized long tryAcquire(long now) {
+            long wait = peek(now);
+            if (wait == 0) {
+                tokens -= 1;
+            }
+            return wait;
+        }
+        
+        synchronized long peek(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) / nanosPerToken);
+            refilledAt = now;
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * nanosPerToken);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.edition.service;
+
+import com.edition.dto.BulkCriteria;
+import com.edition.dto.BulkReport;
+import com.edition.event.BookChangedEvent;
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+import com.edition.repository.BookRepository;
+import com.edition.repository.BookSpecifications;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Opérations d'administration sur un ensemble de livres : une requête UPDATE ou DELETE
+ * par lot de {@code books.bulk.chunk-size} livres, au lieu d'une lecture et d'une écriture
+ * par livre.
+ * <p>
+ * Chaque lot est une transaction courte : ses lignes sont verrouillées ({@code FOR UPDATE}),
+ * modifiées en une requête puis relues, et la transaction validée avant le lot suivant ; le
+ * reste de la table n'est jamais bloqué. Un {@link BookChangedEvent} est publié pour chaque
+ * livre dans la transaction du lot : le journal des modifications les y écrit ensemble, et le
+ * cache, l'index de recherche et les statistiques les appliquent après la validation. Une
+ * opération interrompue laisse les lots déjà validés appliqués.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookBulkService {
+    
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${books.bulk.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${books.bulk.max-ids:10000}")
+    private int maxIds;
+    
+    /**
+     * @param percent variation des prix en pourcentage (arrondis au centime)
+     * @throws IllegalArgumentException si aucun critère n'est renseigné
+     */
+    public BulkReport reprice(BulkCriteria criteria, double percent) {
+        double factor = 1 + percent / 100;
+        return run("reprice", criteria, null, ids -> bookRepository.repriceAll(ids, factor, Instant.now()), false);
+    }
+    
+    /**
+     * Les livres déjà dans {@code category} ne sont pas comptés.
+     *
+     * @throws IllegalArgumentException si aucun critère n'est renseigné
+     */
+    public BulkReport recategorize(BulkCriteria criteria, BookCategory category) {
+        return run("recategorize", criteria, BookSpecifications.notInCategory(category),
+                ids -> bookRepository.recategorizeAll(ids, category, Instant.now()), false);
+    }
+    
+    /**
+     * @throws IllegalArgumentException si aucun critère n'est renseigné
+     */
+    public BulkReport delete(BulkCriteria criteria) {
+        return run("delete", criteria, null, bookRepository::deleteAllWithIds, true);
+    }
+    
+    private BulkReport run(String operation, BulkCriteria criteria, Specification<Book> extra,
+                           Function<List<Long>, Integer> statement, boolean deletion) {
+        Specification<Book> spec = toSpecification(criteria).and(extra);
+        BulkReport report = new BulkReport();
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            long from = afterId;
+            List<BookChangedEvent> events = transactionTemplate.execute(status -> {
+                List<Book> previous = bookRepository.lockChunk(spec, from, chunkSize);
+                if (previous.isEmpty()) {
+                    return List.of();
+                }
+                List<Long> ids = previous.stream().map(Book::getId).toList();
+                report.setAffected(report.getAffected() + statement.apply(ids));
+                // Le contexte de persistance a été vidé : les livres lus avant sont l'état précédent
+                List<BookChangedEvent> changes;
+                if (deletion) {
+                    changes = previous.stream().map(BookChangedEvent::deleted).toList();
+                } else {
+                    Map<Long, Book> current = bookRepository.findAllById(ids).stream()
+                            .collect(Collectors.toMap(Book::getId, Function.identity()));
+                    changes = previous.stream()
+                            .map(book -> BookChangedEvent.updated(book, current.get(book.getId())))
+                            .toList();
+                }
+                changes.forEach(eventPublisher::publishEvent);
+                return changes;
+            });
+            if (events.isEmpty()) {
+                break;
+            }
+            report.setChunks(report.getChunks() + 1);
+            afterId = events.get(events.size() - 1).bookId();
+            if (events.size() < chunkSize) {
+                break;
+            }
+        }
+        log.info("Opération en masse {} : {} livres en {} lots", operation, report.getAffected(), report.getChunks());
+        return report;
+    }
+    
+    private Specification<Book> toSpecification(BulkCriteria criteria) {
+        if (criteria == null || criteria.isEmpty()) {
+            throw new IllegalArgumentException("Au moins un critère de sélection est obligatoire");
+        }
+        if (criteria.getIds() != null && criteria.getIds().size() > maxIds) {
+            throw new IllegalArgumentException("Au plus " + maxIds + " identifiants par opération");
+        }
+        return Specification.allOf(
+                BookSpecifications.hasCategory(criteria.getCategory()),
+                BookSpecifications.hasAuthor(criteria.getAuthor()),
+                BookSpecifications.publishedBetween(criteria.getYearFrom(), criteria.getYearTo()),
+                BookSpecifications.idIn(criteria.getIds()));
+    }
+}
@@ -0,0 +1,137 @@
+package com.edition.service;
+
+import com.edition.dto.CacheStatsResponse;
+import com.edition.event.BookChangedEvent;
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Cache en lecture du catalogue : une entrée par livre et une liste de résultats par
+ * catégorie (plus la liste complète). Caffeine évince selon W-TinyLFU, borné en nombre
+ * de livres pour les entrées et en nombre total de livres pour les listes.
+ * <p>
+ * Chaque {@link BookChangedEvent} invalide exactement le livre concerné et les listes
+ * de son ancienne et de sa nouvelle catégorie. Le cache ne contient que des copies
+ * détachées. {@link #get} et {@link #getAll(Collection, Function)} renvoient une copie de
+ * chaque livre : l'appelant peut la modifier sans toucher au cache. Les listes, elles, sont
+ * partagées telles quelles pour ne pas recopier le catalogue à chaque requête : elles sont
+ * immuables, et leurs livres ne doivent être que lus (sérialisés) par les appelants.
+ */
+@Slf4j
+@Component
+public class BookCache {
+    
+    private static final String ALL_BOOKS = "*";
+    
+    private final Cache<Long, Book> books;
+    private final Cache<String, List<Book>> lists;
+    
+    public BookCache(@Value("${books.cache.max-entries:10000}") long maxEntries,
+                     @Value("${books.cache.max-list-weight:200000}") long maxListWeight,
+                     @Value("${books.cache.ttl:PT10M}") Duration ttl) {
+        this.books = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.lists = Caffeine.newBuilder()
+                .maximumWeight(maxListWeight)
+                .weigher((String key, List<Book> list) -> list.size() + 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+    
+    public Optional<Book> get(Long id, Function<Long, Optional<Book>> loader) {
+        return Optional.ofNullable(books.get(id, key -> loader.apply(key).map(BookCache::detach).orElse(null)))
+                .map(BookCache::detach);
+    }
+    
+    /**
+     * Livres correspondant aux identifiants ; les absents du cache sont chargés en un seul appel.
+     */
+    public Map<Long, Book> getAll(Collection<Long> ids, Function<Collection<Long>, List<Book>> loader) {
+        return books.getAll(ids, missing -> loader.apply(List.copyOf(missing)).stream()
+                        .collect(Collectors.toMap(Book::getId, BookCache::detach)))
+                .values().stream()
+                .collect(Collectors.toMap(Book::getId, BookCache::detach));
+    }
+    
+    /**
+     * Catalogue complet, partagé : à ne pas modifier.
+     */
+    public List<Book> getAll(Supplier<List<Book>> loader) {
+        return lists.get(ALL_BOOKS, key -> detachAll(loader.get()));
+    }
+    
+    /**
+     * Livres de la catégorie, partagés : à ne pas modifier.
+     */
+    public List<Book> getByCategory(BookCategory category, Supplier<List<Book>> loader) {
+        return lists.get(category.name(), key -> detachAll(loader.get()));
+    }
+    
+    /**
+     * Préchauffe le cache avec le catalogue complet chargé au démarrage.
+     */
+    public void warmUp(List<Book> catalog) {
+        List<Book> detached = detachAll(catalog);
+        detached.forEach(book -> books.put(book.getId(), book));
+        lists.put(ALL_BOOKS, detached);
+        detached.stream()
+                .collect(Collectors.groupingBy(Book::getCategory))
+                .forEach((category, categoryBooks) -> lists.put(category.name(), List.copyOf(categoryBooks)));
+        log.info("Cache du catalogue préchauffé: {} livres", detached.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        books.invalidate(event.bookId());
+        lists.invalidate(ALL_BOOKS);
+        if (event.previous() != null && event.previous().getCategory() != null) {
+            lists.invalidate(event.previous().getCategory().name());
+        }
+        if (event.current() != null && event.current().getCategory() != null) {
+            lists.invalidate(event.current().getCategory().name());
+        }
+    }
+    
+    public void invalidateAll() {
+        books.invalidateAll();
+        lists.invalidateAll();
+    }
+    
+    public CacheStatsResponse bookStats() {
+        return CacheStatsResponse.of(books.estimatedSize(), books.stats());
+    }
+    
+    public CacheStatsResponse listStats() {
+        return CacheStatsResponse.of(lists.estimatedSize(), lists.stats());
+    }
+    
+    private static List<Book> detachAll(List<Book> list) {
+        return list.stream().map(BookCache::detach).toList();
+    }
+    
+    private static Book detach(Book book) {
+        Book copy = new Book();
+        BeanUtils.copyProperties(book, copy);
+        return copy;
+    }
+}
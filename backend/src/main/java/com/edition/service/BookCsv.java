@@ -0,0 +1,227 @@
+package com.edition.service;
+
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lecture et écriture CSV (RFC 4180) des livres : séparateur virgule, champs entre
+ * guillemets s'ils contiennent une virgule, un guillemet ou un saut de ligne. La première
+ * ligne nomme les colonnes, dans n'importe quel ordre.
+ */
+final class BookCsv {
+    
+    static final List<String> COLUMNS = List.of(
+            "isbn", "title", "author", "price", "publicationYear", "category", "coverUrl", "description");
+    
+    private BookCsv() {
+    }
+    
+    /**
+     * Position de chaque colonne connue dans l'en-tête ; les colonnes inconnues sont ignorées.
+     *
+     * @throws IllegalArgumentException si une colonne obligatoire manque
+     */
+    static Map<String, Integer> columns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).strip();
+            for (String column : COLUMNS) {
+                if (column.equalsIgnoreCase(name)) {
+                    columns.putIfAbsent(column, i);
+                }
+            }
+        }
+        for (String required : List.of("isbn", "title", "author", "price", "category")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Colonne obligatoire absente de l'en-tête CSV: " + required);
+            }
+        }
+        return columns;
+    }
+    
+    /**
+     * @throws IllegalArgumentException si un prix, une année ou une catégorie est illisible
+     */
+    static Book toBook(Map<String, Integer> columns, List<String> record) {
+        Book book = new Book();
+        book.setIsbn(value(columns, record, "isbn"));
+        book.setTitle(value(columns, record, "title"));
+        book.setAuthor(value(columns, record, "author"));
+        book.setDescription(value(columns, record, "description"));
+        book.setCoverUrl(value(columns, record, "coverUrl"));
+        
+        String price = value(columns, record, "price");
+        String year = value(columns, record, "publicationYear");
+        String category = value(columns, record, "category");
+        try {
+            book.setPrice(price == null ? null : Double.valueOf(price));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Prix invalide: " + price);
+        }
+        try {
+            book.setPublicationYear(year == null ? null : Integer.valueOf(year));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Année de publication invalide: " + year);
+        }
+        try {
+            book.setCategory(category == null ? null : BookCategory.valueOf(category.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Catégorie inconnue: " + category);
+        }
+        return book;
+    }
+    
+    static String isbn(Map<String, Integer> columns, List<String> record) {
+        return value(columns, record, "isbn");
+    }
+    
+    static void writeHeader(Writer out) throws IOException {
+        writeRecord(out, COLUMNS);
+    }
+    
+    static void write(Writer out, Book book) throws IOException {
+        writeRecord(out, List.of(
+                nullToEmpty(book.getIsbn()),
+                nullToEmpty(book.getTitle()),
+                nullToEmpty(book.getAuthor()),
+                book.getPrice() == null ? "" : book.getPrice().toString(),
+                book.getPublicationYear() == null ? "" : book.getPublicationYear().toString(),
+                book.getCategory() == null ? "" : book.getCategory().name(),
+                nullToEmpty(book.getCoverUrl()),
+                nullToEmpty(book.getDescription())));
+    }
+    
+    private static String value(Map<String, Integer> columns, List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).strip();
+        return value.isEmpty() ? null : value;
+    }
+    
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+    
+    private static void writeRecord(Writer out, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            String value = values.get(i);
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+        out.write("\r\n");
+    }
+    
+    /**
+     * Lit un enregistrement à la fois ; un champ entre guillemets peut s'étendre sur
+     * plusieurs lignes.
+     */
+    static final class RecordReader {
+        
+        private final Reader in;
+        private long line = 1;
+        private long recordLine;
+        private int pending = -2;
+        
+        RecordReader(Reader in) {
+            this.in = in;
+        }
+        
+        /**
+         * Ligne du fichier où commence le dernier enregistrement lu.
+         */
+        long line() {
+            return recordLine;
+        }
+        
+        /**
+         * @return les champs de l'enregistrement suivant, ou null en fin de fichier
+         */
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+            List<String> record = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Guillemet non fermé à partir de la ligne " + recordLine);
+                    }
+                    if (c == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = following;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    record.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            unread(following);
+                        }
+                    }
+                    record.add(field.toString());
+                    return record;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+        
+        private int read() throws IOException {
+            int c;
+            if (pending != -2) {
+                c = pending;
+                pending = -2;
+            } else {
+                c = in.read();
+            }
+            if (c == '\n') {
+                line++;
+            }
+            return c;
+        }
+        
+        private void unread(int c) {
+            if (c == '\n') {
+                line--;
+            }
+            pending = c;
+        }
+    }
+}
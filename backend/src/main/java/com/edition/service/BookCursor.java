@@ -0,0 +1,67 @@
+package com.edition.service;
+
+import com.edition.dto.BookSummary;
+import com.edition.repository.BookSortKey;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Curseur opaque de pagination par clé (keyset) : l'identifiant du dernier
+ * livre renvoyé, précédé de la valeur de la clé de tri quand elle n'est pas l'id.
+ */
+record BookCursor(String sortValue, long id) {
+    
+    private static final char SEPARATOR = '\u0000';
+    private static final char VALUE = 'v';
+    private static final char NULL_VALUE = 'n';
+    
+    static BookCursor after(BookSortKey key, BookSummary last) {
+        return new BookCursor(Objects.toString(sortValue(key, last), null), last.getId());
+    }
+    
+    /**
+     * Valeur de la clé de tri pour {@code summary}, null pour le tri par id.
+     */
+    static Comparable<?> sortValue(BookSortKey key, BookSummary summary) {
+        return switch (key) {
+            case ID -> null;
+            case TITLE -> summary.getTitle();
+            case AUTHOR -> summary.getAuthor();
+            case PRICE -> summary.getPrice();
+            case PUBLICATION_YEAR -> summary.getPublicationYear();
+        };
+    }
+    
+    String encode(BookSortKey key) {
+        String raw;
+        if (key == BookSortKey.ID) {
+            raw = Long.toString(id);
+        } else if (sortValue == null) {
+            raw = "" + NULL_VALUE + SEPARATOR + id;
+        } else {
+            raw = VALUE + sortValue + SEPARATOR + id;
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    static BookCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                return new BookCursor(null, Long.parseLong(raw));
+            }
+            long id = Long.parseLong(raw.substring(separator + 1));
+            return switch (raw.charAt(0)) {
+                case VALUE -> new BookCursor(raw.substring(1, separator), id);
+                case NULL_VALUE -> new BookCursor(null, id);
+                default -> throw new IllegalArgumentException();
+            };
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+    }
+}
@@ -1,47 +1,235 @@
 package com.edition.service;
 
+import com.edition.dto.BookFilter;
+import com.edition.dto.BookPatch;
+import com.edition.dto.BookSummary;
+import com.edition.dto.CursorPage;
+import com.edition.dto.FacetCountsResponse;
+import com.edition.event.BookChangedEvent;
 import com.edition.model.Book;
 import com.edition.model.BookCategory;
 import com.edition.repository.BookRepository;
+import com.edition.repository.BookSortKey;
+import com.edition.repository.BookSpecifications;
+import com.edition.search.BookFacetIndex;
+import com.edition.search.BookSearchIndex;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+/**
+ * Service du catalogue. Les lectures qui vont toujours en base s'exécutent dans une transaction
+ * en lecture seule (flush manuel, aucune copie pour la détection des modifications) ; celles
+ * servies par {@link BookCache} n'en ouvrent une, via le dépôt, qu'en cas d'absence du cache.
+ * Les livres renvoyés sont détachés et sans association paresseuse : leur sérialisation, une
+ * fois la transaction terminée, ne touche plus la base.
+ * <p>
+ * Chaque écriture relit le livre, le modifie et publie son {@link BookChangedEvent} dans une
+ * même transaction : le journal des modifications y est écrit avec elle, le cache et les index
+ * n'appliquent la modification qu'après sa validation.
+ */
 @Service
 @RequiredArgsConstructor
 public class BookService {
     
     private final BookRepository bookRepository;
+    private final BookSearchIndex searchIndex;
+    private final BookFacetIndex facetIndex;
+    private final BookCache bookCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    
+    @Value("${books.page.default-size:20}")
+    private int defaultPageSize;
+    
+    @Value("${books.page.max-size:100}")
+    private int maxPageSize;
+    
+    @Value("${books.stream.fetch-size:500}")
+    private int streamFetchSize;
+    
+    @Value("${books.cache.warm-up:true}")
+    private boolean warmUpCache;
+    
+    @Value("${books.filter.max-in-ids:1000}")
+    private int maxInIds;
+    
+    /**
+     * Charge le catalogue une seule fois au démarrage pour construire les index de recherche
+     * et de facettes, et préchauffer le cache.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<Book> catalog = bookRepository.findAll(Sort.by("id"));
+        searchIndex.rebuild(catalog);
+        facetIndex.rebuild(catalog);
+        if (warmUpCache) {
+            bookCache.warmUp(catalog);
+        }
+    }
     
     public List<Book> findAll() {
-        return bookRepository.findAll();
+        return bookCache.getAll(() -> bookRepository.findAll(Sort.by("id")));
+    }
+    
+    /**
+     * Livres satisfaisant tous les critères du filtre, triés par ({@code sort}, id).
+     */
+    public List<Book> filter(BookFilter filter, String sort, String direction) {
+        BookSortKey sortKey = BookSortKey.from(sort);
+        Sort.Direction order = parseDirection(direction);
+        if (filter.isCategoryOnly() && sortKey == BookSortKey.ID && order.isAscending()) {
+            return findByCategory(filter.getCategory());
+        }
+        Criteria criteria = toCriteria(filter);
+        if (criteria.ids() != null) {
+            List<Book> books = new ArrayList<>();
+            bookRepository.forEach(criteria.spec(), sortKey, !order.isAscending(), streamFetchSize,
+                    criteria.restrict(books::add));
+            return books;
+        }
+        Sort byKey = sortKey == BookSortKey.ID
+                ? Sort.by(order, "id")
+                : Sort.by(order, sortKey.attribute()).and(Sort.by(order, "id"));
+        return bookRepository.findAll(criteria.spec(), byKey);
+    }
+    
+    /**
+     * Parcours en flux des livres satisfaisant tous les critères du filtre, triés par
+     * ({@code sort}, id) : lus depuis un curseur de la base, sans passer par le cache ni
+     * garder la liste en mémoire. Les paramètres sont vérifiés ici, avant toute lecture.
+     *
+     * @throws IllegalArgumentException si le tri ou la direction est invalide
+     */
+    public BookScan scan(BookFilter filter, String sort, String direction) {
+        BookSortKey sortKey = BookSortKey.from(sort);
+        boolean descending = parseDirection(direction) == Sort.Direction.DESC;
+        Criteria criteria = toCriteria(filter);
+        return action -> bookRepository.forEach(criteria.spec(), sortKey, descending, streamFetchSize,
+                criteria.restrict(action));
+    }
+    
+    /**
+     * Page du catalogue filtrée et paginée par clé : le coût ne dépend que de la taille
+     * de page, pas de la position dans le catalogue.
+     *
+     * @param cursor    curseur renvoyé par la page précédente, ou null pour la première page
+     * @param size      taille demandée, bornée par {@code books.page.max-size}
+     * @param sort      clé de tri (voir {@link BookSortKey}), {@code id} par défaut
+     * @param direction {@code asc} (par défaut) ou {@code desc}
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BookSummary> findPage(BookFilter filter, String cursor, Integer size,
+                                            String sort, String direction) {
+        int pageSize = boundedSize(size);
+        BookSortKey sortKey = BookSortKey.from(sort);
+        boolean descending = parseDirection(direction) == Sort.Direction.DESC;
+        
+        Criteria criteria = toCriteria(filter);
+        Specification<Book> spec = criteria.spec();
+        if (cursor != null && !cursor.isBlank()) {
+            BookCursor after = BookCursor.decode(cursor);
+            Comparable<?> value;
+            try {
+                value = sortKey.parse(after.sortValue());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Curseur de pagination invalide");
+            }
+            spec = spec.and(BookSpecifications.after(sortKey, descending, value, after.id()));
+        }
+        
+        // Une ligne de plus pour savoir s'il existe une page suivante sans requête COUNT
+        List<BookSummary> rows = criteria.ids() == null
+                ? bookRepository.findSummaries(spec, sortKey, descending, pageSize + 1)
+                : findSummariesAmong(spec, criteria.ids(), sortKey, descending, pageSize + 1);
+        
+        boolean hasNext = rows.size() > pageSize;
+        List<BookSummary> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext
+                ? BookCursor.after(sortKey, content.get(content.size() - 1)).encode(sortKey)
+                : null;
+        return new CursorPage<>(content, nextCursor, hasNext);
     }
     
     public Optional<Book> findById(Long id) {
-        return bookRepository.findById(id);
+        return bookCache.get(id, bookRepository::findById);
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        return bookRepository.findVersionById(id);
     }
     
     public List<Book> findByCategory(BookCategory category) {
-        return bookRepository.findByCategory(category);
+        return bookCache.getByCategory(category, () -> bookRepository.findByCategoryOrderById(category));
     }
     
-    public List<Book> searchByAuthor(String author) {
-        return bookRepository.findByAuthorContainingIgnoreCase(author);
+    /**
+     * Recherche plein texte (titre, auteur, description, ISBN), résultats classés par pertinence.
+     */
+    public List<Book> search(String query, Integer limit) {
+        return findAllInOrder(searchIndex.search(query, boundedSize(limit)));
     }
     
-    public List<Book> searchByTitle(String title) {
-        return bookRepository.findByTitleContainingIgnoreCase(title);
+    /**
+     * Comptes par catégorie, décennie et tranche de prix des livres correspondant à la
+     * recherche texte {@code q} (facultative) et aux valeurs de facettes retenues.
+     * Calculés sur les index en mémoire, sans accès à la base.
+     */
+    public FacetCountsResponse facets(String q, BookFacetIndex.Selection selection) {
+        return facetIndex.count(selection, matching(q, BookSearchIndex.Field.values()));
     }
     
+    @Transactional
     public Book save(Book book) {
-        return bookRepository.save(book);
+        // Un livre créé part toujours de la version initiale
+        book.setVersion(null);
+        Book saved = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.created(saved));
+        return saved;
     }
     
+    @Transactional
     public Optional<Book> update(Long id, Book bookDetails) {
+        return update(id, bookDetails, bookDetails.getVersion());
+    }
+    
+    /**
+     * @param expectedVersion version connue du client, ou null pour ne pas la vérifier
+     * @throws OptimisticLockingFailureException si le livre a été modifié depuis cette version
+     */
+    @Transactional
+    public Optional<Book> update(Long id, Book bookDetails, Long expectedVersion) {
         return bookRepository.findById(id)
                 .map(existingBook -> {
+                    if (expectedVersion != null && !expectedVersion.equals(existingBook.getVersion())) {
+                        throw new OptimisticLockingFailureException(
+                                "Le livre " + id + " a été modifié entre-temps");
+                    }
+                    Book previous = snapshot(existingBook);
                     existingBook.setTitle(bookDetails.getTitle());
                     existingBook.setAuthor(bookDetails.getAuthor());
                     existingBook.setIsbn(bookDetails.getIsbn());
@@ -50,19 +238,209 @@ public class BookService {
                     existingBook.setCoverUrl(bookDetails.getCoverUrl());
                     existingBook.setPublicationYear(bookDetails.getPublicationYear());
                     existingBook.setCategory(bookDetails.getCategory());
-                    return bookRepository.save(existingBook);
+                    Book saved = bookRepository.save(existingBook);
+                    eventPublisher.publishEvent(BookChangedEvent.updated(previous, saved));
+                    return saved;
                 });
     }
     
-    public boolean delete(Long id) {
-        if (bookRepository.existsById(id)) {
-            bookRepository.deleteById(id);
-            return true;
+    /**
+     * Modification partielle : seuls les champs du patch sont validés, et seules les colonnes
+     * dont la valeur change sont écrites, en une requête UPDATE conditionnée par la version.
+     * L'état précédent vient du cache s'il est à la version attendue ; sinon il est relu.
+     *
+     * @throws IllegalArgumentException          si un champ du patch enfreint les contraintes de {@link Book}
+     * @throws OptimisticLockingFailureException si le livre n'est plus à {@code expectedVersion}
+     */
+    @Transactional
+    public Optional<Book> patch(Long id, BookPatch patch, long expectedVersion) {
+        String violations = patch.changes().entrySet().stream()
+                .flatMap(change -> validator.validateValue(Book.class, change.getKey(), change.getValue()).stream())
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations);
         }
-        return false;
+        
+        Optional<Book> cached = findById(id).filter(book -> Objects.equals(book.getVersion(), expectedVersion));
+        Optional<Book> found = cached.isPresent() ? cached : bookRepository.findById(id).map(BookService::snapshot);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Book previous = found.get();
+        if (!Objects.equals(previous.getVersion(), expectedVersion)) {
+            throw new OptimisticLockingFailureException("Le livre " + id + " a été modifié entre-temps");
+        }
+        
+        Book patched = snapshot(previous);
+        BeanWrapper before = PropertyAccessorFactory.forBeanPropertyAccess(previous);
+        BeanWrapper after = PropertyAccessorFactory.forBeanPropertyAccess(patched);
+        Map<String, Object> changed = new LinkedHashMap<>();
+        patch.changes().forEach((attribute, value) -> {
+            if (!Objects.equals(before.getPropertyValue(attribute), value)) {
+                after.setPropertyValue(attribute, value);
+                changed.put(attribute, value);
+            }
+        });
+        if (changed.isEmpty()) {
+            return Optional.of(previous);
+        }
+        
+        Instant now = Instant.now();
+        if (bookRepository.updateColumns(id, expectedVersion, changed, now) == 0) {
+            if (bookRepository.findVersionById(id).isEmpty()) {
+                return Optional.empty();
+            }
+            throw new OptimisticLockingFailureException("Le livre " + id + " a été modifié entre-temps");
+        }
+        patched.setVersion(expectedVersion + 1);
+        patched.setUpdatedAt(now);
+        eventPublisher.publishEvent(BookChangedEvent.updated(previous, patched));
+        return Optional.of(patched);
     }
     
+    @Transactional
+    public boolean delete(Long id) {
+        return bookRepository.findById(id)
+                .map(book -> {
+                    bookRepository.delete(book);
+                    eventPublisher.publishEvent(BookChangedEvent.deleted(book));
+                    return true;
+                })
+                .orElse(false);
+    }
+    
+    @Transactional(readOnly = true)
     public boolean existsByIsbn(String isbn) {
         return bookRepository.existsByIsbn(isbn);
     }
+    
+    /**
+     * Les identifiants retenus par les critères texte passent dans une clause IN jusqu'à
+     * {@code books.filter.max-in-ids} ; au-delà, ils sont appliqués en mémoire aux lignes
+     * lues dans l'ordre de tri, pour ne pas envoyer une requête à des milliers de paramètres.
+     */
+    private Criteria toCriteria(BookFilter filter) {
+        if (filter == null) {
+            return new Criteria(Specification.where(null), null);
+        }
+        Specification<Book> spec = Specification.allOf(
+                BookSpecifications.hasCategory(filter.getCategory()),
+                BookSpecifications.priceBetween(filter.getMinPrice(), filter.getMaxPrice()),
+                BookSpecifications.publishedBetween(filter.getYearFrom(), filter.getYearTo()));
+        Set<Long> ids = intersection(
+                matching(filter.getQ(), BookSearchIndex.Field.values()),
+                matching(filter.getAuthor(), BookSearchIndex.Field.AUTHOR),
+                matching(filter.getTitle(), BookSearchIndex.Field.TITLE));
+        if (ids == null || ids.size() <= maxInIds) {
+            return new Criteria(spec.and(BookSpecifications.idIn(ids)), null);
+        }
+        return new Criteria(spec, ids);
+    }
+    
+    /**
+     * Page parmi {@code ids} : les lignes satisfaisant {@code spec} sont lues dans l'ordre de
+     * tri, par lots de {@code books.stream.fetch-size}, jusqu'à en trouver {@code limit}.
+     */
+    private List<BookSummary> findSummariesAmong(Specification<Book> spec, Set<Long> ids,
+                                                 BookSortKey sortKey, boolean descending, int limit) {
+        List<BookSummary> matched = new ArrayList<>(limit);
+        Specification<Book> remaining = spec;
+        while (true) {
+            List<BookSummary> batch = bookRepository.findSummaries(remaining, sortKey, descending, streamFetchSize);
+            for (BookSummary row : batch) {
+                if (ids.contains(row.getId()) && matched.size() < limit) {
+                    matched.add(row);
+                }
+            }
+            if (matched.size() >= limit || batch.size() < streamFetchSize) {
+                return matched;
+            }
+            BookSummary last = batch.get(batch.size() - 1);
+            remaining = spec.and(BookSpecifications.after(sortKey, descending,
+                    BookCursor.sortValue(sortKey, last), last.getId()));
+        }
+    }
+    
+    /**
+     * Les critères texte passent par l'index de recherche plutôt que par un LIKE '%x%'.
+     */
+    private Set<Long> matching(String text, BookSearchIndex.Field... fields) {
+        return text == null || text.isBlank() ? null : searchIndex.matching(text, List.of(fields));
+    }
+    
+    /**
+     * Intersection des ensembles non nuls, null s'ils le sont tous.
+     */
+    @SafeVarargs
+    private static Set<Long> intersection(Set<Long>... sets) {
+        Set<Long> result = null;
+        for (Set<Long> set : sets) {
+            if (set == null) {
+                continue;
+            }
+            if (result == null) {
+                result = new HashSet<>(set);
+            } else {
+                result.retainAll(set);
+            }
+        }
+        return result;
+    }
+    
+    private static Sort.Direction parseDirection(String direction) {
+        if (direction == null || direction.isBlank()) {
+            return Sort.Direction.ASC;
+        }
+        return Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new IllegalArgumentException("Direction de tri invalide: " + direction));
+    }
+    
+    private int boundedSize(Integer size) {
+        return size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+    }
+    
+    /**
+     * Charge les livres en une requête en conservant l'ordre des identifiants donnés.
+     */
+    private List<Book> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Book> byId = bookCache.getAll(ids, bookRepository::findAllById);
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+    
+    private static Book snapshot(Book book) {
+        Book copy = new Book();
+        BeanUtils.copyProperties(book, copy);
+        return copy;
+    }
+    
+    /**
+     * Partie SQL d'un filtre et, si elle n'y tient pas, restriction en mémoire aux
+     * identifiants {@code ids} (null : aucune).
+     */
+    private record Criteria(Specification<Book> spec, Set<Long> ids) {
+        
+        Consumer<Book> restrict(Consumer<Book> action) {
+            return ids == null ? action : book -> {
+                if (ids.contains(book.getId())) {
+                    action.accept(book);
+                }
+            };
+        }
+    }
+    
+    /**
+     * Parcours différé renvoyé par {@link #scan} ; chaque appel relit la base.
+     */
+    @FunctionalInterface
+    public interface BookScan {
+        void forEach(Consumer<Book> action);
+    }
 }
@@ -0,0 +1,319 @@
+package com.edition.service;
+
+import com.edition.dto.ImportError;
+import com.edition.dto.ImportReport;
+import com.edition.event.BookChangedEvent;
+import com.edition.model.Book;
+import com.edition.repository.BookJdbcRepository;
+import com.edition.repository.BookRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Import et export en masse du catalogue, en NDJSON (un livre JSON par ligne) ou en CSV.
+ * <p>
+ * L'import lit le flux au fil de l'eau et traite les livres par lots de
+ * {@code books.import.chunk-size} : validation des contraintes de {@link Book}, une seule
+ * requête pour écarter les ISBN déjà connus, puis une insertion par lots JDBC
+ * ({@code hibernate.jdbc.batch_size}) dans sa propre transaction. Chaque ligne rejetée est rapportée avec son numéro.
+ * Si la base refuse le lot pour une autre raison qu'un ISBN déjà connu, il est repris ligne
+ * par ligne : seules les lignes fautives sont rejetées, l'import continue.
+ * <p>
+ * L'export écrit les livres dans la réponse à mesure qu'ils sont lus du curseur.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookTransferService {
+    
+    private final BookRepository bookRepository;
+    private final BookJdbcRepository bookJdbcRepository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${books.import.chunk-size:1000}")
+    private int chunkSize;
+    
+    @Value("${books.import.max-errors:1000}")
+    private int maxErrors;
+    
+    public ImportReport importNdjson(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        ImportRun run = new ImportRun();
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                run.add(lineNumber, objectMapper.readValue(line, Book.class));
+            } catch (JsonProcessingException e) {
+                run.invalid(lineNumber, null, "JSON invalide: " + e.getOriginalMessage());
+            }
+        }
+        return run.finish();
+    }
+    
+    /**
+     * @throws IllegalArgumentException si l'en-tête CSV est incomplet
+     */
+    public ImportReport importCsv(InputStream input) throws IOException {
+        BookCsv.RecordReader reader = new BookCsv.RecordReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        ImportRun run = new ImportRun();
+        List<String> header = reader.next();
+        if (header == null) {
+            return run.finish();
+        }
+        Map<String, Integer> columns = BookCsv.columns(header);
+        while (true) {
+            List<String> record;
+            try {
+                record = reader.next();
+            } catch (IllegalArgumentException e) {
+                // Guillemet non fermé : le reste du fichier est illisible
+                run.invalid(reader.line(), null, e.getMessage());
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            try {
+                run.add(reader.line(), BookCsv.toBook(columns, record));
+            } catch (IllegalArgumentException e) {
+                run.invalid(reader.line(), BookCsv.isbn(columns, record), e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+    
+    public void exportNdjson(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        export(book -> {
+            writer.write(objectMapper.writeValueAsString(book));
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+    
+    public void exportCsv(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        BookCsv.writeHeader(writer);
+        export(book -> BookCsv.write(writer, book));
+        writer.flush();
+    }
+    
+    /**
+     * Tout le catalogue en un seul tableau, au format de {@code mapper} (CBOR, Smile...).
+     */
+    public void exportArray(ObjectMapper mapper, OutputStream output) throws IOException {
+        writeArray(mapper, bookJdbcRepository::forEach, output);
+    }
+    
+    /**
+     * Écrit les livres parcourus par {@code scan} en un seul tableau, au format de {@code mapper},
+     * élément par élément. La sortie n'est vidée que lorsque son tampon est plein, pas après
+     * chaque livre.
+     */
+    public void writeArray(ObjectMapper mapper, BookService.BookScan scan, OutputStream output) throws IOException {
+        ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+            generator.writeStartArray();
+            forEach(scan, book -> writer.writeValue(generator, book));
+            generator.writeEndArray();
+        }
+    }
+    
+    private void export(BookWriter writer) throws IOException {
+        forEach(bookJdbcRepository::forEach, writer);
+    }
+    
+    private static void forEach(BookService.BookScan scan, BookWriter writer) throws IOException {
+        try {
+            scan.forEach(book -> {
+                try {
+                    writer.write(book);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    @FunctionalInterface
+    private interface BookWriter {
+        void write(Book book) throws IOException;
+    }
+    
+    private record Row(long line, Book book) {
+    }
+    
+    /**
+     * État d'un import en cours : lot courant et bilan.
+     */
+    private final class ImportRun {
+        
+        private final ImportReport report = new ImportReport();
+        private final List<Row> chunk = new ArrayList<>(chunkSize);
+        
+        void add(long line, Book book) {
+            report.setReceived(report.getReceived() + 1);
+            book.setId(null);
+            book.setVersion(null);
+            Set<ConstraintViolation<Book>> violations = validator.validate(book);
+            if (!violations.isEmpty()) {
+                reject(line, book.getIsbn(), violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            chunk.add(new Row(line, book));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+        
+        /**
+         * Ligne reçue mais illisible, donc jamais transmise à {@link #add}.
+         */
+        void invalid(long line, String isbn, String message) {
+            report.setReceived(report.getReceived() + 1);
+            reject(line, isbn, message);
+        }
+        
+        void reject(long line, String isbn, String message) {
+            if (report.getErrors().size() < maxErrors) {
+                report.getErrors().add(new ImportError(line, isbn, message));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+            report.setRejected(report.getRejected() + 1);
+        }
+        
+        ImportReport finish() {
+            flush();
+            log.info("Import terminé: {} livres importés, {} rejetés", report.getImported(), report.getRejected());
+            return report;
+        }
+        
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Map<String, Row> byIsbn = new LinkedHashMap<>();
+            for (Row row : chunk) {
+                if (byIsbn.putIfAbsent(row.book().getIsbn(), row) != null) {
+                    reject(row.line(), row.book().getIsbn(), "ISBN en double dans le fichier");
+                }
+            }
+            chunk.clear();
+            rejectExisting(byIsbn);
+            
+            while (!byIsbn.isEmpty()) {
+                List<Book> books = byIsbn.values().stream().map(Row::book).toList();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(books));
+                    break;
+                } catch (DataIntegrityViolationException e) {
+                    books.forEach(ImportRun::reset);
+                    // Un autre import a inséré certains de ces ISBN entre-temps : on les écarte
+                    if (!rejectExisting(byIsbn)) {
+                        persistOneByOne(byIsbn);
+                        break;
+                    }
+                }
+            }
+            
+            report.setImported(report.getImported() + byIsbn.size());
+        }
+        
+        /**
+         * Insère chaque ligne dans sa propre transaction et rejette celles que la base refuse.
+         */
+        private void persistOneByOne(Map<String, Row> byIsbn) {
+            Iterator<Row> rows = byIsbn.values().iterator();
+            while (rows.hasNext()) {
+                Row row = rows.next();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(List.of(row.book())));
+                } catch (DataIntegrityViolationException e) {
+                    reset(row.book());
+                    rows.remove();
+                    String isbn = row.book().getIsbn();
+                    if (bookRepository.existsByIsbn(isbn)) {
+                        reject(row.line(), isbn, "Un livre avec cet ISBN existe déjà");
+                    } else {
+                        log.warn("Ligne {} refusée par la base: {}", row.line(), e.getMostSpecificCause().getMessage());
+                        reject(row.line(), isbn, "Refusé par la base: " + e.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+        
+        /**
+         * Insère les livres et publie leurs événements dans la transaction en cours : le
+         * journal des modifications les écrit avec eux, en un lot.
+         */
+        private void persist(List<Book> books) {
+            bookRepository.persistAll(books);
+            books.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.created(book)));
+        }
+        
+        private static void reset(Book book) {
+            book.setId(null);
+            book.setVersion(null);
+        }
+        
+        /**
+         * @return vrai si au moins un ISBN du lot existait déjà en base
+         */
+        private boolean rejectExisting(Map<String, Row> byIsbn) {
+            Set<String> existing = bookRepository.findExistingIsbns(byIsbn.keySet());
+            for (String isbn : existing) {
+                Row row = byIsbn.remove(isbn);
+                reject(row.line(), isbn, "Un livre avec cet ISBN existe déjà");
+            }
+            return !existing.isEmpty();
+        }
+    }
+}
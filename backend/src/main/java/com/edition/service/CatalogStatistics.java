@@ -0,0 +1,130 @@
+package com.edition.service;
+
+import com.edition.dto.CatalogStatsResponse;
+import com.edition.dto.CategoryStatsResponse;
+import com.edition.event.BookChangedEvent;
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+import com.edition.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Statistiques du catalogue tenues en mémoire : initialisées par une requête d'agrégation
+ * au démarrage puis mises à jour à chaque {@link BookChangedEvent}, sans jamais relire
+ * le catalogue.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogStatistics {
+    
+    private final BookRepository bookRepository;
+    
+    private final Accumulator total = new Accumulator();
+    private final Map<BookCategory, Accumulator> byCategory = new EnumMap<>(BookCategory.class);
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void seed() {
+        total.clear();
+        byCategory.clear();
+        for (Object[] row : bookRepository.countByCategoryPriceAndYear()) {
+            BookCategory category = (BookCategory) row[0];
+            Double price = (Double) row[1];
+            Integer year = (Integer) row[2];
+            long count = ((Number) row[3]).longValue();
+            add(category, price, year, count);
+        }
+        log.info("Statistiques du catalogue initialisées: {} livres", total.count);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        if (event.previous() != null) {
+            add(event.previous(), -1);
+        }
+        if (event.current() != null) {
+            add(event.current(), 1);
+        }
+    }
+    
+    public synchronized CatalogStatsResponse snapshot() {
+        Map<BookCategory, CategoryStatsResponse> categories = new EnumMap<>(BookCategory.class);
+        byCategory.forEach((category, accumulator) -> {
+            if (accumulator.count > 0) {
+                categories.put(category, accumulator.toResponse());
+            }
+        });
+        return new CatalogStatsResponse(total.toResponse(), categories);
+    }
+    
+    private void add(Book book, long delta) {
+        add(book.getCategory(), book.getPrice(), book.getPublicationYear(), delta);
+    }
+    
+    private void add(BookCategory category, Double price, Integer year, long delta) {
+        total.add(price, year, delta);
+        if (category != null) {
+            byCategory.computeIfAbsent(category, c -> new Accumulator()).add(price, year, delta);
+        }
+    }
+    
+    /**
+     * Compteurs d'un ensemble de livres. Les prix sont gardés sous forme de multiensemble
+     * trié pour que le minimum et le maximum restent exacts après une suppression.
+     */
+    private static final class Accumulator {
+        private long count;
+        private long priced;
+        private double priceSum;
+        private final TreeMap<Double, Long> prices = new TreeMap<>();
+        private final TreeMap<Integer, Long> decades = new TreeMap<>();
+        private long unknownYear;
+        
+        void add(Double price, Integer year, long delta) {
+            count += delta;
+            if (price != null) {
+                priced += delta;
+                priceSum += price * delta;
+                merge(prices, price, delta);
+            }
+            if (year != null) {
+                merge(decades, Math.floorDiv(year, 10) * 10, delta);
+            } else {
+                unknownYear += delta;
+            }
+        }
+        
+        void clear() {
+            count = 0;
+            priced = 0;
+            priceSum = 0;
+            prices.clear();
+            decades.clear();
+            unknownYear = 0;
+        }
+        
+        CategoryStatsResponse toResponse() {
+            return new CategoryStatsResponse(
+                    count,
+                    prices.isEmpty() ? null : prices.firstKey(),
+                    prices.isEmpty() ? null : prices.lastKey(),
+                    priced == 0 ? null : Math.round(priceSum / priced * 100) / 100.0,
+                    new LinkedHashMap<>(decades),
+                    unknownYear);
+        }
+        
+        private static <K> void merge(TreeMap<K, Long> counts, K key, long delta) {
+            counts.merge(key, delta, (current, d) -> current + d == 0 ? null : current + d);
+        }
+    }
+}
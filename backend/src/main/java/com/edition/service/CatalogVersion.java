@@ -0,0 +1,33 @@
+package com.edition.service;
+
+import com.edition.event.BookChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version globale du catalogue, incrémentée après la validation de chaque modification d'un
+ * livre. Sert d'ETag aux listes, aux statistiques et aux facettes : tant qu'elle ne change
+ * pas, aucune n'a changé, et un {@code If-None-Match} à jour reçoit un 304 sans requête en base.
+ * <p>
+ * Tenue en mémoire, elle a les limites des autres vues du catalogue en mémoire (cache, index,
+ * statistiques) : elle est propre à chaque instance et ne voit que les modifications faites
+ * par celle-ci, l'application ne tournant qu'en une instance (voir le README). La valeur
+ * initiale est l'heure de démarrage : un redémarrage ne réutilise pas une version déjà
+ * distribuée, il invalide seulement une fois les ETags des clients.
+ */
+@Component
+public class CatalogVersion {
+    
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    
+    public long current() {
+        return version.get();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        version.incrementAndGet();
+    }
+}
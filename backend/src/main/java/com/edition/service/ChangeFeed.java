@@ -0,0 +1,341 @@
+package com.edition.service;
+
+import com.edition.dto.BookChangeResponse;
+import com.edition.dto.ChangeFeedPage;
+import com.edition.event.BookChangedEvent;
+import com.edition.model.Book;
+import com.edition.model.BookChange;
+import com.edition.repository.BookChangeRepository;
+import com.edition.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Journal des modifications du catalogue, pour la synchronisation incrémentale des miroirs :
+ * chaque {@link BookChangedEvent} y ajoute une entrée (pierre tombale pour une suppression),
+ * lue par curseur ({@link #page}) ou poussée en direct aux abonnés Server-Sent Events
+ * ({@link #subscribe}).
+ * <p>
+ * Les entrées sont écrites dans la transaction de la modification, toutes ensemble juste avant
+ * sa validation : elles sont validées ou annulées avec elle. Le verrou du journal est pris à ce
+ * moment et rendu après la validation, pour que l'ordre des curseurs soit celui des
+ * validations : un client qui a lu jusqu'au curseur {@code n} ne peut plus voir apparaître
+ * d'entrée inférieure. Les identifiants peuvent avoir des trous (annulations).
+ * <p>
+ * La purge supprime les entrées antérieures à la plus récente de celles qui ont dépassé
+ * {@code books.changes.retention}, qu'elle garde comme borne : la première entrée restante
+ * est donc plus ancienne que la rétention dès qu'une purge a supprimé quelque chose. Seul un
+ * curseur antérieur à cette borne reçoit un 410 et doit tout relire.
+ * <p>
+ * Les lectures d'une page (entrées puis livres) se font dans une même transaction en lecture
+ * seule, donc sur un même réplica : un livre présent n'y apparaît jamais supprimé.
+ */
+@Slf4j
+@Service
+public class ChangeFeed implements DisposableBean {
+    
+    private final BookChangeRepository changeRepository;
+    private final BookRepository bookRepository;
+    private final int maxPageSize;
+    private final Duration retention;
+    private final long sseTimeoutMillis;
+    
+    private final TransactionTemplate writeTransaction;
+    /**
+     * Rejeu SSE : transaction en écriture, donc sur le primaire. Sur un réplica en retard, le
+     * rejeu manquerait des entrées dont la diffusion est déjà passée.
+     */
+    private final TransactionTemplate replayTransaction;
+    
+    private final ReentrantLock recordLock = new ReentrantLock();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    /** Un seul thread d'envoi : l'ordre des événements est préservé, les clients lents ne bloquent pas les écritures. */
+    private final ExecutorService broadcaster = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed-sse");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public ChangeFeed(BookChangeRepository changeRepository,
+                      BookRepository bookRepository,
+                      @Value("${books.changes.max-page-size:1000}") int maxPageSize,
+                      @Value("${books.changes.retention:P30D}") Duration retention,
+                      @Value("${books.changes.sse-timeout:PT30M}") Duration sseTimeout,
+                      PlatformTransactionManager transactionManager) {
+        this.changeRepository = changeRepository;
+        this.bookRepository = bookRepository;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.replayTransaction = new TransactionTemplate(transactionManager);
+        this.maxPageSize = maxPageSize;
+        this.retention = retention;
+        this.sseTimeoutMillis = sseTimeout.toMillis();
+    }
+    
+    /**
+     * Ajoute la modification aux entrées de la transaction en cours ; sans transaction,
+     * l'entrée est écrite dans la sienne.
+     */
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            writeTransaction.executeWithoutResult(status -> onBookChanged(event));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        BookChange.Type type = event.isDeletion() ? BookChange.Type.DELETED
+                : event.previous() == null ? BookChange.Type.CREATED : BookChange.Type.UPDATED;
+        pending.add(new BookChange(event.bookId(), type, Instant.now()), event.current());
+    }
+    
+    /**
+     * Modifications postérieures à {@code since}, {@code limit} au plus.
+     *
+     * @param since curseur d'une page précédente, ou null pour obtenir le curseur courant
+     *              sans aucune modification (à utiliser juste avant une copie complète)
+     * @return vide si des modifications postérieures à {@code since} ont déjà été purgées
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    @Transactional(readOnly = true)
+    public Optional<ChangeFeedPage> page(String since, Integer limit) {
+        if (since == null || since.isBlank()) {
+            String head = String.valueOf(changeRepository.findLastId().orElse(0L));
+            return Optional.of(new ChangeFeedPage(List.of(), head, false));
+        }
+        long after = parseCursor(since);
+        if (isExpired(after)) {
+            return Optional.empty();
+        }
+        int pageSize = limit == null ? maxPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        List<BookChange> rows = changeRepository.findByIdGreaterThanOrderById(after, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<BookChange> changes = hasMore ? rows.subList(0, pageSize) : rows;
+        String cursor = changes.isEmpty() ? since : String.valueOf(changes.get(changes.size() - 1).getId());
+        return Optional.of(new ChangeFeedPage(withBooks(changes), cursor, hasMore));
+    }
+    
+    /**
+     * Abonnement SSE : chaque modification est envoyée comme un événement {@code change}
+     * dont l'identifiant est le curseur. Avec {@code lastEventId} (reconnexion), les
+     * modifications manquées sont d'abord rejouées depuis la base.
+     *
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        Long after = lastEventId == null || lastEventId.isBlank() ? null : parseCursor(lastEventId);
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // Rejeu puis inscription sur le thread d'envoi. Les diffusions validées pendant le rejeu
+        // sont mises en file derrière lui et atteignent l'abonné ; celles qu'il a déjà rejouées
+        // sont ignorées (identifiant inférieur ou égal au dernier envoyé).
+        broadcaster.execute(() -> {
+            if (after != null) {
+                if (replayTransaction.execute(status -> isExpired(after))) {
+                    emitter.completeWithError(new IllegalStateException("Curseur expiré"));
+                    return;
+                }
+                List<BookChangeResponse> missed;
+                do {
+                    long from = subscriber.lastSent == null ? after : subscriber.lastSent;
+                    // Une transaction par lot : pas de connexion retenue pendant l'envoi
+                    missed = replayTransaction.execute(status -> withBooks(
+                            changeRepository.findByIdGreaterThanOrderById(from, Limit.of(maxPageSize))));
+                    missed.forEach(subscriber::send);
+                } while (missed.size() == maxPageSize && subscriber.open);
+            }
+            if (subscriber.open) {
+                subscribers.add(subscriber);
+            }
+        });
+        return emitter;
+    }
+    
+    /**
+     * Commentaire SSE périodique : garde la connexion ouverte à travers les proxys et
+     * détecte les clients partis.
+     */
+    @Scheduled(fixedDelayString = "${books.changes.sse-heartbeat:PT30S}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            broadcaster.execute(() -> subscribers.forEach(Subscriber::heartbeat));
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${books.changes.purge-interval:PT1H}")
+    public void purge() {
+        // La borne reste : elle date la purge pour isExpired et porte au besoin le curseur courant
+        Optional<Long> boundary = changeRepository.findLastIdBefore(Instant.now().minus(retention));
+        if (boundary.isEmpty()) {
+            return;
+        }
+        int purged = changeRepository.deleteBefore(boundary.get());
+        if (purged > 0) {
+            log.info("Journal des modifications: {} entrées de plus de {} supprimées", purged, retention);
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        broadcaster.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+    
+    /**
+     * Vrai si des entrées postérieures à {@code after} ont pu être purgées : le curseur précède
+     * la première entrée restante et celle-ci a dépassé la rétention, c'est-à-dire qu'elle est
+     * la borne d'une purge. Une entrée plus récente que la rétention n'a jamais été précédée
+     * d'une suppression : les trous de la séquence ne font alors pas expirer le curseur.
+     */
+    private boolean isExpired(long after) {
+        Instant retained = Instant.now().minus(retention);
+        return changeRepository.findFirstByOrderById()
+                .map(first -> first.getId() > after + 1 && first.getChangedAt().isBefore(retained))
+                .orElse(false);
+    }
+    
+    private List<BookChangeResponse> withBooks(List<BookChange> changes) {
+        if (changes.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Book> books = bookRepository.findAllById(
+                        changes.stream().map(BookChange::getBookId).distinct().toList()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return changes.stream()
+                .map(change -> toResponse(change, books.get(change.getBookId())))
+                .toList();
+    }
+    
+    private static BookChangeResponse toResponse(BookChange change, Book book) {
+        return new BookChangeResponse(String.valueOf(change.getId()), change.getType(),
+                change.getBookId(), change.getChangedAt(), book);
+    }
+    
+    private static long parseCursor(String cursor) {
+        try {
+            return Long.parseLong(cursor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Curseur de modifications invalide");
+        }
+    }
+    
+    /**
+     * Entrées d'une transaction, écrites juste avant sa validation puis diffusées aux abonnés
+     * une fois celle-ci faite.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+        private final List<BookChange> changes = new ArrayList<>();
+        private final List<Book> books = new ArrayList<>();
+        private boolean locked;
+        
+        void add(BookChange change, Book book) {
+            changes.add(change);
+            books.add(book);
+        }
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Écritures du catalogue d'abord : leurs verrous de ligne sont pris hors du verrou du journal
+            changeRepository.flush();
+            recordLock.lock();
+            locked = true;
+            changeRepository.saveAll(changes);
+            changeRepository.flush();
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeFeed.this);
+            try {
+                // Mise en file sous le verrou : les diffusions suivent l'ordre des identifiants.
+                // Même sans abonné : un abonnement en cours de rejeu la recevra.
+                if (status == STATUS_COMMITTED) {
+                    broadcast();
+                }
+            } finally {
+                if (locked) {
+                    recordLock.unlock();
+                }
+            }
+        }
+        
+        private void broadcast() {
+            List<BookChangeResponse> responses = new ArrayList<>(changes.size());
+            for (int i = 0; i < changes.size(); i++) {
+                responses.add(toResponse(changes.get(i), books.get(i)));
+            }
+            broadcaster.execute(() -> responses.forEach(
+                    response -> subscribers.forEach(subscriber -> subscriber.send(response))));
+        }
+    }
+    
+    /**
+     * Un client SSE ; n'est utilisé que depuis le thread d'envoi.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private Long lastSent;
+        private boolean open = true;
+        
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        void send(BookChangeResponse change) {
+            long id = Long.parseLong(change.getCursor());
+            if (!open || (lastSent != null && id <= lastSent)) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().id(change.getCursor()).name("change").data(change));
+                lastSent = id;
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+        
+        void heartbeat() {
+            try {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+        
+        private void close() {
+            open = false;
+            subscribers.remove(this);
+        }
+    }
+}
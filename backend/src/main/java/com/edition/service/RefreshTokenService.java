@@ -0,0 +1,107 @@
+package com.edition.service;
+
+import com.edition.model.RefreshToken;
+import com.edition.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Refresh tokens à rotation : chaque utilisation en délivre un nouveau et invalide
+ * l'ancien. Le renouvellement ne fait aucun calcul BCrypt ; seule l'empreinte SHA-256
+ * du token est stockée.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+    
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration lifetime;
+    private final SecureRandom random = new SecureRandom();
+    
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-expiration:P30D}") Duration lifetime) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.lifetime = lifetime;
+    }
+    
+    /**
+     * Délivre le premier refresh token d'une nouvelle session.
+     */
+    public String issue(String username) {
+        return issue(username, UUID.randomUUID().toString());
+    }
+    
+    /**
+     * Échange un refresh token contre un nouveau. Un token inconnu, expiré ou déjà utilisé
+     * est refusé ; dans ce dernier cas il a pu être volé, et toute sa session est révoquée.
+     */
+    public Optional<Rotation> rotate(String token) {
+        Optional<RefreshToken> found = refreshTokenRepository.findByTokenHash(hash(token));
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        RefreshToken current = found.get();
+        if (current.getExpiresAt().isBefore(Instant.now())) {
+            refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+            return Optional.empty();
+        }
+        if (refreshTokenRepository.markUsed(current.getId()) == 0) {
+            log.warn("Refresh token réutilisé pour {}: session révoquée", current.getUsername());
+            refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+            return Optional.empty();
+        }
+        String next = issue(current.getUsername(), current.getFamilyId());
+        return Optional.of(new Rotation(current.getUsername(), next));
+    }
+    
+    /**
+     * Révoque la session à laquelle appartient {@code token}.
+     */
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(found -> refreshTokenRepository.deleteByFamilyId(found.getFamilyId()));
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            log.debug("{} refresh tokens expirés supprimés", purged);
+        }
+    }
+    
+    private String issue(String username, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = TOKEN_ENCODER.encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(token), username, familyId, Instant.now().plus(lifetime)));
+        return token;
+    }
+    
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    public record Rotation(String username, String refreshToken) {
+    }
+}
@@ -1,9 +1,12 @@
 package com.edition.service;
 
+import com.edition.config.ReplicaRoutingDataSource;
 import com.edition.dto.RegisterRequest;
 import com.edition.model.Role;
 import com.edition.model.User;
 import com.edition.repository.UserRepository;
+import com.edition.security.PasswordHashingExecutor;
+import com.edition.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,8 +14,12 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Collections;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -20,10 +27,17 @@ public class UserService implements UserDetailsService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final PasswordHashingExecutor passwordHashing;
     
+    /**
+     * Lu au primaire : le principal est mis en cache, et un réplica en retard y remettrait le
+     * rôle d'avant un {@link #updateRole}, quel que soit le client de la requête.
+     */
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = ReplicaRoutingDataSource.readFromPrimary(() -> userRepository.findByUsername(username))
                 .orElseThrow(() -> new UsernameNotFoundException(
                         "Utilisateur non trouvé: " + username));
         
@@ -34,29 +48,70 @@ public class UserService implements UserDetailsService {
         );
     }
     
+    /**
+     * @throws java.util.concurrent.RejectedExecutionException si trop de hachages sont en attente
+     */
     public User createUser(RegisterRequest request) {
         User user = new User();
         user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(hash(request.getPassword()));
         user.setRole(Role.ROLE_USER);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        invalidateAfterCommit(saved.getUsername());
+        return saved;
     }
     
     public User createAdmin(String username, String password) {
         User user = new User();
         user.setUsername(username);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(hash(password));
         user.setRole(Role.ROLE_ADMIN);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        invalidateAfterCommit(saved.getUsername());
+        return saved;
     }
     
+    @Transactional
+    public Optional<User> updateRole(String username, Role role) {
+        return userRepository.findByUsername(username)
+                .map(user -> {
+                    user.setRole(role);
+                    User saved = userRepository.save(user);
+                    invalidateAfterCommit(username);
+                    return saved;
+                });
+    }
+    
+    @Transactional(readOnly = true)
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
     }
     
+    @Transactional(readOnly = true)
     public User findByUsername(String username) {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException(
                         "Utilisateur non trouvé: " + username));
     }
+    
+    /**
+     * Le principal n'est retiré du cache qu'une fois la modification validée : une requête
+     * concurrente ne peut pas y remettre l'état précédent.
+     */
+    private void invalidateAfterCommit(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            principalCache.invalidate(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                principalCache.invalidate(username);
+            }
+        });
+    }
+    
+    private String hash(String password) {
+        return passwordHashing.execute("encode", () -> passwordEncoder.encode(password));
+    }
 }
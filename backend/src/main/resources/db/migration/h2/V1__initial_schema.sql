@@ -0,0 +1,72 @@
+-- Schema initial, equivalent a celui que generait Hibernate (ddl-auto=update) :
+-- une base existante est simplement marquee en version 1 (spring.flyway.baseline-on-migrate).
+
+create sequence books_seq start with 1 increment by 50;
+create sequence users_seq start with 1 increment by 50;
+create sequence refresh_tokens_seq start with 1 increment by 50;
+create sequence book_changes_seq start with 1 increment by 1;
+
+create table books (
+    id bigint not null,
+    title varchar(255),
+    author varchar(255),
+    isbn varchar(255),
+    price double precision,
+    description varchar(1000),
+    cover_url varchar(255),
+    publication_year integer,
+    category varchar(20),
+    version bigint,
+    created_at timestamp(6) with time zone,
+    updated_at timestamp(6) with time zone,
+    primary key (id),
+    constraint uk_books_isbn unique (isbn)
+);
+
+create index idx_books_title_id on books (title, id);
+create index idx_books_author_id on books (author, id);
+create index idx_books_price_id on books (price, id);
+create index idx_books_year_id on books (publication_year, id);
+create index idx_books_category_price on books (category, price, id);
+create index idx_books_category_year on books (category, publication_year, id);
+
+create table users (
+    id bigint not null,
+    username varchar(255),
+    password varchar(255),
+    role varchar(20),
+    primary key (id),
+    constraint uk_users_username unique (username)
+);
+
+create table refresh_tokens (
+    id bigint not null,
+    token_hash varchar(64) not null,
+    username varchar(255) not null,
+    family_id varchar(36) not null,
+    expires_at timestamp(6) with time zone not null,
+    used boolean not null default false,
+    primary key (id),
+    constraint uk_refresh_tokens_hash unique (token_hash)
+);
+
+create index idx_refresh_tokens_family on refresh_tokens (family_id);
+create index idx_refresh_tokens_expires on refresh_tokens (expires_at);
+
+create table revoked_tokens (
+    jti varchar(36) not null,
+    expires_at timestamp(6) with time zone not null,
+    primary key (jti)
+);
+
+create index idx_revoked_tokens_expires on revoked_tokens (expires_at);
+
+create table book_changes (
+    id bigint not null,
+    book_id bigint not null,
+    type varchar(10) not null,
+    changed_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index idx_book_changes_changed_at on book_changes (changed_at);
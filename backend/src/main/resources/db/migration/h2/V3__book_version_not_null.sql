@@ -0,0 +1,4 @@
+-- Version de verrouillage optimiste obligatoire : les livres d'une base reprise (V2) n'en ont pas
+update books set version = 0 where version is null;
+alter table books alter column version set default 0;
+alter table books alter column version set not null;
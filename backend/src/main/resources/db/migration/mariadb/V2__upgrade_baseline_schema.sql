@@ -0,0 +1,64 @@
+-- Mise a niveau d'une base creee par ddl-auto=update avant Flyway et marquee en version 1 :
+-- les tables, colonnes, index et sequences absents sont crees. Sans effet apres V1.
+
+create sequence if not exists books_seq start with 1 increment by 50;
+create sequence if not exists users_seq start with 1 increment by 50;
+create sequence if not exists refresh_tokens_seq start with 1 increment by 50;
+create sequence if not exists book_changes_seq start with 1 increment by 1;
+
+-- Les anciens identifiants venaient de colonnes auto-incrementees : les sequences repartent
+-- au-dela du plus grand identifiant, premier bloc de 50 compris (setval ne recule jamais)
+set @next_book_id = (select coalesce(max(id) + 51, 1) from books);
+set @setval_books = concat('select setval(books_seq, ', @next_book_id, ')');
+prepare setval_books from @setval_books;
+execute setval_books;
+deallocate prepare setval_books;
+
+set @next_user_id = (select coalesce(max(id) + 51, 1) from users);
+set @setval_users = concat('select setval(users_seq, ', @next_user_id, ')');
+prepare setval_users from @setval_users;
+execute setval_users;
+deallocate prepare setval_users;
+
+alter table books add column if not exists version bigint;
+alter table books add column if not exists created_at datetime(6);
+alter table books add column if not exists updated_at datetime(6);
+
+create index if not exists idx_books_title_id on books (title, id);
+create index if not exists idx_books_author_id on books (author, id);
+create index if not exists idx_books_price_id on books (price, id);
+create index if not exists idx_books_year_id on books (publication_year, id);
+create index if not exists idx_books_category_price on books (category, price, id);
+create index if not exists idx_books_category_year on books (category, publication_year, id);
+
+create table if not exists refresh_tokens (
+    id bigint not null,
+    token_hash varchar(64) not null,
+    username varchar(255) not null,
+    family_id varchar(36) not null,
+    expires_at datetime(6) not null,
+    used boolean not null default false,
+    primary key (id),
+    constraint uk_refresh_tokens_hash unique (token_hash)
+) engine=InnoDB;
+
+create index if not exists idx_refresh_tokens_family on refresh_tokens (family_id);
+create index if not exists idx_refresh_tokens_expires on refresh_tokens (expires_at);
+
+create table if not exists revoked_tokens (
+    jti varchar(36) not null,
+    expires_at datetime(6) not null,
+    primary key (jti)
+) engine=InnoDB;
+
+create index if not exists idx_revoked_tokens_expires on revoked_tokens (expires_at);
+
+create table if not exists book_changes (
+    id bigint not null,
+    book_id bigint not null,
+    type varchar(10) not null,
+    changed_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index if not exists idx_book_changes_changed_at on book_changes (changed_at);
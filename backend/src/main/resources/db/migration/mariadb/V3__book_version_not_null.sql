@@ -0,0 +1,3 @@
+-- Version de verrouillage optimiste obligatoire : les livres d'une base reprise (V2) n'en ont pas
+update books set version = 0 where version is null;
+alter table books modify version bigint not null default 0;
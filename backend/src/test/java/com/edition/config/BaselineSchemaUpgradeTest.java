@@ -0,0 +1,71 @@
+package com.edition.config;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Une base créée par {@code ddl-auto=update} avant Flyway est marquée en version 1 puis
+ * complétée par V2 et V3 ; sur une base créée par V1, V2 ne change rien.
+ */
+class BaselineSchemaUpgradeTest {
+    
+    @Test
+    void upgradesALegacySchema() {
+        JdbcDataSource dataSource = dataSource();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        // Schéma généré par Hibernate avant Flyway : identifiants auto-incrémentés, sans version
+        jdbc.execute("create table books (id bigint generated by default as identity, title varchar(255), "
+                + "author varchar(255), isbn varchar(255) unique, price double precision, description varchar(1000), "
+                + "cover_url varchar(255), publication_year integer, category varchar(255), primary key (id))");
+        jdbc.execute("create table users (id bigint generated by default as identity, username varchar(255) unique, "
+                + "password varchar(255), role varchar(255), primary key (id))");
+        jdbc.update("insert into books (id, title, isbn) values (120, 'Candide', '978-0000000001')");
+        jdbc.update("insert into users (id, username) values (3, 'admin')");
+        
+        migrate(dataSource);
+        
+        assertThat(jdbc.queryForList("select \"version\" from \"flyway_schema_history\" "
+                + "where \"version\" is not null order by \"installed_rank\"", String.class))
+                .containsExactly("1", "2", "3");
+        assertThat(jdbc.queryForObject("select count(*) from books where version = 0 and created_at is null",
+                Integer.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("select next value for books_seq", Long.class)).isGreaterThan(120 + 50);
+        assertThat(jdbc.queryForObject("select next value for users_seq", Long.class)).isGreaterThan(3 + 50);
+        assertThat(jdbc.queryForObject("select count(*) from book_changes", Integer.class)).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from refresh_tokens", Integer.class)).isZero();
+    }
+    
+    @Test
+    void leavesAFreshSchemaUnchanged() {
+        JdbcDataSource dataSource = dataSource();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        
+        migrate(dataSource);
+        
+        assertThat(jdbc.queryForObject("select next value for books_seq", Long.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("select count(*) from information_schema.indexes "
+                + "where table_name = 'BOOKS' and index_name = 'IDX_BOOKS_TITLE_ID'", Integer.class)).isEqualTo(1);
+    }
+    
+    private static void migrate(JdbcDataSource dataSource) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+    
+    private static JdbcDataSource dataSource() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}
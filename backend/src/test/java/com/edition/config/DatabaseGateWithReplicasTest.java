@@ -0,0 +1,96 @@
+package com.edition.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lectures sur réplicas et limite de concurrence ensemble : chaque pool a sa limite, et le
+ * pool du primaire reste un bean Hikari.
+ */
+class DatabaseGateWithReplicasTest {
+    
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            // Conversions de Spring Boot (Duration des @Value), comme dans l'application
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(ReplicaRoutingConfig.class, DatabaseGateConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:gate-primary;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.hikari.maximum-pool-size=4",
+                    "db.replicas.enabled=true",
+                    "db.replicas.urls=jdbc:h2:mem:gate-replica;DB_CLOSE_DELAY=-1",
+                    "db.replicas.pool-size=3",
+                    "db.gate.enabled=true");
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+    
+    @Test
+    void primaryAndReplicaPoolsAreBothGated() {
+        runner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context.getBean("primaryDataSource")).isInstanceOf(HikariDataSource.class);
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            DataSource dataSource = context.getBean(ReplicaRoutingDataSource.class);
+            
+            try (Connection ignored = dataSource.getConnection()) {
+                assertThat(permits(registry, "primary")).isEqualTo(3);
+                assertThat(permits(registry, "replica-1")).isEqualTo(3);
+            }
+            try (Connection ignored = readOnlyConnection(dataSource)) {
+                assertThat(permits(registry, "primary")).isEqualTo(4);
+                assertThat(permits(registry, "replica-1")).isEqualTo(2);
+            }
+            assertThat(permits(registry, "replica-1")).isEqualTo(3);
+        });
+    }
+    
+    @Test
+    void withoutReplicasOnlyTheBootPoolIsGated() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+                .withUserConfiguration(DatabaseGateConfig.class)
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withPropertyValues("spring.datasource.url=jdbc:h2:mem:gate-single;DB_CLOSE_DELAY=-1",
+                        "db.gate.enabled=true", "db.gate.max-concurrency=2")
+                .run(context -> {
+                    assertThat(context.getBean(DataSource.class)).isInstanceOf(ConcurrencyLimitedDataSource.class);
+                    assertThat(permits(context.getBean(MeterRegistry.class), "primary")).isEqualTo(2);
+                });
+    }
+    
+    private static Connection readOnlyConnection(DataSource dataSource) throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            return dataSource.getConnection();
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+    
+    private static double permits(MeterRegistry registry, String pool) {
+        return registry.get("db.gate.permits.available").tag("pool", pool).gauge().value();
+    }
+}
@@ -0,0 +1,46 @@
+package com.edition.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddedReplicaSyncTest {
+    
+    @Test
+    void copiesTheSchemaThenEachStateOfThePrimary() throws Exception {
+        String name = UUID.randomUUID().toString();
+        JdbcDataSource primary = new JdbcDataSource();
+        primary.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        primary.setUser("sa");
+        String replicaUrl = "jdbc:h2:mem:" + name + "-replica;DB_CLOSE_DELAY=-1";
+        JdbcTemplate source = new JdbcTemplate(primary);
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(replicaUrl, "sa", ""));
+        source.execute("create table books (id bigint primary key, title varchar(50) unique)");
+        source.update("insert into books values (1, 'Candide'), (2, 'Zadig')");
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUsername("sa");
+        properties.setPassword("");
+        properties.afterPropertiesSet();
+        EmbeddedReplicaSync sync = new EmbeddedReplicaSync(primary, properties,
+                List.of(replicaUrl, "jdbc:h2:tcp://localhost:1/mem:absent"));
+        
+        sync.sync();
+        source.update("update books set title = 'Micromégas' where id = 2");
+        source.update("insert into books values (3, 'Zadig')");
+        
+        assertThat(replica.queryForList("select title from books order by id", String.class))
+                .containsExactly("Candide", "Zadig");
+        
+        sync.sync();
+        
+        assertThat(replica.queryForList("select title from books order by id", String.class))
+                .containsExactly("Candide", "Micromégas", "Zadig");
+    }
+}
@@ -0,0 +1,51 @@
+package com.edition.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingConfigTest {
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+    
+    @Test
+    void clientIsTheAuthenticatedUser() {
+        request("10.0.0.1");
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                "alice", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+        
+        assertThat(ReplicaRoutingConfig.requestClient()).isEqualTo("user:alice");
+    }
+    
+    @Test
+    void anonymousClientIsItsAddress() {
+        request("10.0.0.1");
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        
+        assertThat(ReplicaRoutingConfig.requestClient()).isEqualTo("ip:10.0.0.1");
+    }
+    
+    @Test
+    void noClientOutsideARequest() {
+        assertThat(ReplicaRoutingConfig.requestClient()).isNull();
+    }
+    
+    private static void request(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
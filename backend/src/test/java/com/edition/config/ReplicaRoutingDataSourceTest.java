@@ -0,0 +1,217 @@
+package com.edition.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+    
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection firstConnection = mock(Connection.class);
+    private final Connection secondConnection = mock(Connection.class);
+    private final DataSource primary = dataSource(primaryConnection);
+    private final DataSource first = dataSource(firstConnection);
+    private final DataSource second = dataSource(secondConnection);
+    private final AtomicReference<String> client = new AtomicReference<>();
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+    
+    @Test
+    void readOnlyTransactionsUseTheReplicasInTurn() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(null);
+        
+        assertThat(read(routing)).isSameAs(firstConnection);
+        assertThat(read(routing)).isSameAs(secondConnection);
+        assertThat(read(routing)).isSameAs(firstConnection);
+        assertThat(routing.getReplicaConnections()).isEqualTo(3);
+        assertThat(routing.getPrimaryConnections()).isZero();
+    }
+    
+    @Test
+    void writesAndAccessesOutsideTransactionsUseThePrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(null);
+        
+        assertThat(write(routing, true)).isSameAs(primaryConnection);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(routing.getPrimaryConnections()).isEqualTo(2);
+    }
+    
+    @Test
+    void readYourWritesOnlyAppliesToTheWritingClient() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(null);
+        client.set("user:alice");
+        write(routing, true);
+        
+        assertThat(read(routing)).isSameAs(primaryConnection);
+        client.set("user:bob");
+        assertThat(read(routing)).isSameAs(firstConnection);
+        client.set(null);
+        assertThat(read(routing)).isSameAs(secondConnection);
+    }
+    
+    @Test
+    void rolledBackWriteDoesNotPinTheClient() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(null);
+        client.set("user:alice");
+        write(routing, false);
+        
+        assertThat(read(routing)).isSameAs(firstConnection);
+    }
+    
+    @Test
+    void writesWithoutClientPinNobody() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(null);
+        routing.getConnection();
+        
+        client.set("user:alice");
+        assertThat(read(routing)).isSameAs(firstConnection);
+    }
+    
+    @Test
+    void primaryReadsSkipTheReplicasWithoutPinningTheClient() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(null);
+        client.set("user:alice");
+        
+        assertThat(ReplicaRoutingDataSource.readFromPrimary(() -> readUnchecked(routing)))
+                .isSameAs(primaryConnection);
+        assertThat(read(routing)).isSameAs(firstConnection);
+    }
+    
+    @Test
+    void refusedReplicaIsEjectedAndSkipped() throws SQLException {
+        when(first.getConnection()).thenThrow(new SQLTransientConnectionException("refusée"));
+        ReplicaRoutingDataSource routing = routing(null);
+        
+        assertThat(read(routing)).isSameAs(secondConnection);
+        assertThat(read(routing)).isSameAs(secondConnection);
+        assertThat(routing.getEjections()).isEqualTo(1);
+        assertThat(routing.getHealthyReplicas()).isEqualTo(1);
+    }
+    
+    @Test
+    void withoutHealthyReplicaReadsUseThePrimary() throws SQLException {
+        when(first.getConnection()).thenThrow(new SQLTransientConnectionException("refusée"));
+        when(second.getConnection()).thenThrow(new SQLTransientConnectionException("refusée"));
+        ReplicaRoutingDataSource routing = routing(null);
+        
+        assertThat(read(routing)).isSameAs(primaryConnection);
+        assertThat(read(routing)).isSameAs(primaryConnection);
+        assertThat(routing.getHealthyReplicas()).isZero();
+        assertThat(routing.getEjections()).isEqualTo(2);
+    }
+    
+    @Test
+    void healthCheckReinstatesARecoveredReplica() throws SQLException {
+        when(first.getConnection())
+                .thenThrow(new SQLTransientConnectionException("refusée"))
+                .thenReturn(firstConnection);
+        when(firstConnection.isValid(anyInt())).thenReturn(true);
+        when(secondConnection.isValid(anyInt())).thenReturn(true);
+        ReplicaRoutingDataSource routing = routing(null);
+        read(routing);
+        
+        routing.checkReplicas();
+        
+        assertThat(routing.getHealthyReplicas()).isEqualTo(2);
+        assertThat(read(routing)).isSameAs(firstConnection);
+    }
+    
+    @Test
+    void healthCheckEjectsALaggingReplica() throws SQLException {
+        when(firstConnection.isValid(anyInt())).thenReturn(true);
+        when(secondConnection.isValid(anyInt())).thenReturn(true);
+        lag(firstConnection, 30);
+        lag(secondConnection, 2);
+        ReplicaRoutingDataSource routing = routing("select lag");
+        
+        routing.checkReplicas();
+        
+        assertThat(routing.getHealthyReplicas()).isEqualTo(1);
+        assertThat(routing.getEjections()).isEqualTo(1);
+        assertThat(read(routing)).isSameAs(secondConnection);
+        assertThat(read(routing)).isSameAs(secondConnection);
+    }
+    
+    private ReplicaRoutingDataSource routing(String lagQuery) {
+        return new ReplicaRoutingDataSource(primary,
+                List.of(new ReplicaRoutingDataSource.Replica("replica-1", first),
+                        new ReplicaRoutingDataSource.Replica("replica-2", second)),
+                client::get, Duration.ofMinutes(1), Duration.ofSeconds(1), lagQuery, Duration.ofSeconds(10));
+    }
+    
+    private static Connection read(ReplicaRoutingDataSource routing) throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            return routing.getConnection();
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+    
+    private static Connection readUnchecked(ReplicaRoutingDataSource routing) {
+        try {
+            return read(routing);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static Connection write(ReplicaRoutingDataSource routing, boolean commit) throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            Connection connection = routing.getConnection();
+            if (commit) {
+                TransactionSynchronizationUtils.invokeAfterCommit(
+                        TransactionSynchronizationManager.getSynchronizations());
+            }
+            return connection;
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+    
+    private static void lag(Connection connection, long seconds) throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet result = mock(ResultSet.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(result);
+        when(result.next()).thenReturn(true);
+        when(result.getObject(1)).thenReturn(seconds);
+        when(result.getLong(1)).thenReturn(seconds);
+    }
+    
+    private static DataSource dataSource(Connection connection) {
+        DataSource dataSource = mock(DataSource.class);
+        try {
+            when(dataSource.getConnection()).thenReturn(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return dataSource;
+    }
+}
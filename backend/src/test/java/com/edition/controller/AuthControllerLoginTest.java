@@ -0,0 +1,91 @@
+package com.edition.controller;
+
+import com.edition.dto.LoginRequest;
+import com.edition.security.AuthThrottle;
+import com.edition.security.PasswordHashingExecutor;
+import com.edition.service.RefreshTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Seuls des identifiants refusés répondent « Identifiants incorrects » et débitent le seau
+ * des échecs ; une panne pendant ou après l'authentification remonte telle quelle.
+ */
+class AuthControllerLoginTest {
+    
+    private final AuthenticationManager authenticationManager = mock(AuthenticationManager.class);
+    private final AuthThrottle authThrottle = mock(AuthThrottle.class);
+    private final PasswordHashingExecutor passwordHashing = mock(PasswordHashingExecutor.class);
+    private final RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+    private final AuthController controller = new AuthController(authenticationManager, null, null,
+            authThrottle, passwordHashing, refreshTokenService, null, null);
+    
+    @BeforeEach
+    void setUp() {
+        when(authThrottle.checkLogin(anyString(), anyString())).thenReturn(Optional.empty());
+        when(passwordHashing.execute(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void rejectedCredentialsChargeTheFailureBucket() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("refusé"));
+        
+        assertThat(login().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(authThrottle).loginFailed("alice");
+    }
+    
+    @Test
+    void anOutageDuringAuthenticationIsNotAFailedLogin() {
+        when(authenticationManager.authenticate(any()))
+                .thenThrow(new InternalAuthenticationServiceException("base indisponible",
+                        new DataAccessResourceFailureException("base indisponible")));
+        
+        assertThatThrownBy(this::login).isInstanceOf(DataAccessResourceFailureException.class);
+        verify(authThrottle, never()).loginFailed(anyString());
+    }
+    
+    @Test
+    void aRefreshTokenFailureIsNotAFailedLogin() {
+        User user = new User("alice", "", List.of());
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        when(refreshTokenService.issue("alice")).thenThrow(new DataAccessResourceFailureException("base indisponible"));
+        
+        assertThatThrownBy(this::login).isInstanceOf(DataAccessResourceFailureException.class);
+        verify(authThrottle, never()).loginFailed(anyString());
+    }
+    
+    private ResponseEntity<?> login() {
+        return controller.login(new LoginRequest("alice", "secret"), new MockHttpServletRequest());
+    }
+}
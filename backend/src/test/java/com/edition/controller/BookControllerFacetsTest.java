@@ -0,0 +1,59 @@
+package com.edition.controller;
+
+import com.edition.dto.FacetCountsResponse;
+import com.edition.event.BookChangedEvent;
+import com.edition.model.Book;
+import com.edition.service.BookService;
+import com.edition.service.CatalogVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Les facettes sont servies depuis la mémoire : un ETag à jour reçoit un 304 sans calcul.
+ */
+class BookControllerFacetsTest {
+    
+    private final BookService bookService = mock(BookService.class);
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final BookController controller = new BookController(bookService, catalogVersion, null, null, null,
+            null, null, null, null, null);
+    
+    BookControllerFacetsTest() {
+        ReflectionTestUtils.setField(controller, "maxAge", Duration.ZERO);
+    }
+    
+    @Test
+    void upToDateETagIsAnsweredWithoutCounting() {
+        String etag = ETags.forCatalog(catalogVersion.current());
+        
+        ResponseEntity<?> response = controller.getFacets(null, null, null, null, etag);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        verifyNoInteractions(bookService);
+    }
+    
+    @Test
+    void changeInvalidatesTheETag() {
+        FacetCountsResponse counts = mock(FacetCountsResponse.class);
+        when(bookService.facets(isNull(), any())).thenReturn(counts);
+        String etag = ETags.forCatalog(catalogVersion.current());
+        catalogVersion.onBookChanged(BookChangedEvent.created(new Book()));
+        
+        ResponseEntity<?> response = controller.getFacets(null, null, null, null, etag);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(counts);
+        assertThat(response.getHeaders().getETag()).isEqualTo(ETags.forCatalog(catalogVersion.current()));
+    }
+}
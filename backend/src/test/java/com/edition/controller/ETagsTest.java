@@ -0,0 +1,37 @@
+package com.edition.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagsTest {
+    
+    @Test
+    void bookVersionReadsTheVersionOfTheSameBook() {
+        assertThat(ETags.bookVersion(ETags.forBook(12L, 3L), 12L)).isEqualTo(3L);
+        assertThat(ETags.bookVersion(" \"b12v0\" ", 12L)).isZero();
+    }
+    
+    @Test
+    void bookVersionRejectsAnotherBook() {
+        assertThat(ETags.bookVersion(ETags.forBook(12L, 3L), 1L)).isNull();
+        assertThat(ETags.bookVersion(ETags.forBook(1L, 3L), 12L)).isNull();
+    }
+    
+    @Test
+    void bookVersionRejectsOtherTags() {
+        assertThat(ETags.bookVersion(ETags.forCatalog(3L), 12L)).isNull();
+        assertThat(ETags.bookVersion("W/\"b12v3\"", 12L)).isNull();
+        assertThat(ETags.bookVersion("\"bv3\"", 12L)).isNull();
+        assertThat(ETags.bookVersion("\"b12v\"", 12L)).isNull();
+        assertThat(ETags.bookVersion("*", 12L)).isNull();
+    }
+    
+    @Test
+    void matchesIgnoresTheWeakPrefix() {
+        assertThat(ETags.matches("\"x\", W/\"c5\"", ETags.forCatalog(5L))).isTrue();
+        assertThat(ETags.matches("*", ETags.forBook(1L, 1L))).isTrue();
+        assertThat(ETags.matches("\"b1v0\"", ETags.forBook(1L, 1L))).isFalse();
+        assertThat(ETags.matches(null, ETags.forBook(1L, 1L))).isFalse();
+    }
+}
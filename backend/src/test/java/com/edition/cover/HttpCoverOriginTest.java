@@ -0,0 +1,77 @@
+package com.edition.cover;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Aucune requête ne part vers un hôte absent de la liste, ni vers une adresse non publique.
+ */
+class HttpCoverOriginTest {
+    
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+    private String url;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(200, 3);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(new byte[]{1, 2, 3});
+            }
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/cover.jpg";
+    }
+    
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+    
+    @Test
+    void emptyAllowListDeniesEveryHost() throws IOException {
+        assertThat(origin(List.of()).fetch(url)).isEmpty();
+        assertThat(requests).hasValue(0);
+    }
+    
+    @Test
+    void allowedHostResolvingToLoopbackIsDenied() throws IOException {
+        assertThat(origin(List.of("localhost")).fetch(url)).isEmpty();
+        assertThat(origin(List.of("127.0.0.1")).fetch(url.replace("localhost", "127.0.0.1"))).isEmpty();
+        assertThat(requests).hasValue(0);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"127.0.0.1", "10.1.2.3", "172.16.0.1", "192.168.1.1", "169.254.169.254",
+            "100.64.0.1", "0.0.0.0", "224.0.0.1", "::1", "::", "fe80::1", "fd00::1", "::ffff:10.0.0.1"})
+    void nonPublicAddressesAreRejected(String address) throws IOException {
+        assertThat(HttpCoverOrigin.isPublic(InetAddress.getByName(address))).isFalse();
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"8.8.8.8", "100.128.0.1", "172.32.0.1", "2001:4860:4860::8888"})
+    void publicAddressesAreAccepted(String address) throws IOException {
+        assertThat(HttpCoverOrigin.isPublic(InetAddress.getByName(address))).isTrue();
+    }
+    
+    private static HttpCoverOrigin origin(List<String> allowedHosts) {
+        return new HttpCoverOrigin(Duration.ofSeconds(2), 1000, allowedHosts);
+    }
+}
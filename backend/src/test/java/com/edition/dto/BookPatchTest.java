@@ -0,0 +1,86 @@
+package com.edition.dto;
+
+import com.edition.model.BookCategory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class BookPatchTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @Test
+    void keepsOnlyThePresentFieldsWithTheirTypes() throws IOException {
+        BookPatch patch = parse("{\"price\": 12, \"category\": \"POESIE\", \"publicationYear\": 1857, "
+                + "\"title\": \"Alcools\"}");
+        
+        assertThat(patch.changes()).containsExactly(
+                entry("price", 12.0),
+                entry("category", BookCategory.POESIE),
+                entry("publicationYear", 1857),
+                entry("title", "Alcools"));
+        assertThat(patch.version()).isNull();
+    }
+    
+    @Test
+    void nullClearsTheField() throws IOException {
+        BookPatch patch = parse("{\"description\": null, \"coverUrl\": null}");
+        
+        assertThat(patch.changes()).containsOnlyKeys("description", "coverUrl");
+        assertThat(patch.changes().get("description")).isNull();
+    }
+    
+    @Test
+    void versionIsTheExpectedVersionNotAChange() throws IOException {
+        BookPatch patch = parse("{\"version\": 3, \"price\": 9.5}");
+        
+        assertThat(patch.version()).isEqualTo(3L);
+        assertThat(patch.changes()).containsOnlyKeys("price");
+        assertThat(parse("{\"version\": \"trois\"}").version()).isNull();
+    }
+    
+    @Test
+    void readOnlyFieldsAreIgnored() throws IOException {
+        BookPatch patch = parse("{\"id\": 99, \"createdAt\": \"2020-01-01T00:00:00Z\", \"updatedAt\": null}");
+        
+        assertThat(patch.changes()).isEmpty();
+    }
+    
+    @Test
+    void rejectsUnknownFieldsAndWrongTypes() {
+        assertThatThrownBy(() -> parse("{\"editor\": \"Gallimard\"}"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("editor");
+        assertThatThrownBy(() -> parse("{\"category\": \"POLAR\"}"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("category");
+        assertThatThrownBy(() -> parse("{\"price\": \"gratuit\"}"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("price");
+    }
+    
+    @Test
+    void rejectsADocumentThatIsNotAnObject() {
+        assertThatThrownBy(() -> parse("[1, 2]")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BookPatch.from(null, objectMapper)).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void changesCannotBeModified() throws IOException {
+        BookPatch patch = parse("{\"title\": \"Alcools\"}");
+        
+        assertThatThrownBy(() -> patch.changes().put("author", "Apollinaire"))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+    
+    private BookPatch parse(String json) throws IOException {
+        JsonNode document = objectMapper.readTree(json);
+        return BookPatch.from(document, objectMapper);
+    }
+}
@@ -0,0 +1,63 @@
+package com.edition.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementCounterTest {
+    
+    private final StatementCounter inspector = new StatementCounter();
+    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+    
+    @AfterEach
+    void tearDown() {
+        StatementCounter.clear();
+        pool.shutdownNow();
+    }
+    
+    @Test
+    void countsOnlyWhileARequestCounterIsOpen() {
+        inspector.inspect("select 1");
+        AtomicInteger count = StatementCounter.start();
+        inspector.inspect("select 2");
+        inspector.inspect("select 3");
+        StatementCounter.clear();
+        inspector.inspect("select 4");
+        
+        assertThat(count).hasValue(2);
+    }
+    
+    @Test
+    void propagatedTasksCountForTheSubmittingRequest() throws Exception {
+        AtomicInteger count = StatementCounter.start();
+        
+        pool.submit(StatementCounter.propagate(() -> { inspector.inspect("select 1"); })).get();
+        CompletableFuture.supplyAsync(StatementCounter.propagate(() -> inspector.inspect("select 2")), pool).get();
+        
+        assertThat(count).hasValue(2);
+    }
+    
+    @Test
+    void workerThreadIsLeftWithoutCounterAfterThePropagatedTask() throws Exception {
+        AtomicInteger count = StatementCounter.start();
+        pool.submit(StatementCounter.propagate(() -> { inspector.inspect("select 1"); })).get();
+        
+        // Une tâche non propagée sur le même thread n'est plus comptée
+        pool.submit(() -> inspector.inspect("select 2")).get();
+        
+        assertThat(count).hasValue(1);
+    }
+    
+    @Test
+    void propagateWithoutCounterReturnsTheTaskUnchanged() {
+        Runnable task = () -> { };
+        
+        assertThat(StatementCounter.propagate(task)).isSameAs(task);
+    }
+}
@@ -0,0 +1,59 @@
+package com.edition.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementMetricsFilterTest {
+    
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StatementMetricsFilter filter = new StatementMetricsFilter(registry, 20);
+    private final StatementCounter inspector = new StatementCounter();
+    
+    @Test
+    void recordsTheStatementsOfASynchronousRequest() throws Exception {
+        MockHttpServletRequest request = request();
+        
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+        });
+        
+        assertThat(summary().count()).isEqualTo(1);
+        assertThat(summary().totalAmount()).isEqualTo(2);
+    }
+    
+    @Test
+    void recordsAnAsynchronousResponseWhenItCompletes() throws Exception {
+        MockHttpServletRequest request = request();
+        request.setAsyncSupported(true);
+        Runnable[] streaming = new Runnable[1];
+        
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            inspector.inspect("select 1");
+            req.startAsync();
+            streaming[0] = StatementCounter.propagate(() -> { inspector.inspect("select 2"); });
+        });
+        assertThat(registry.find("hibernate.statements.per.request").summary()).isNull();
+        
+        streaming[0].run();
+        request.getAsyncContext().complete();
+        
+        assertThat(summary().totalAmount()).isEqualTo(2);
+    }
+    
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/export");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/books/export");
+        return request;
+    }
+    
+    private DistributionSummary summary() {
+        return registry.get("hibernate.statements.per.request").tag("uri", "/api/books/export").summary();
+    }
+}
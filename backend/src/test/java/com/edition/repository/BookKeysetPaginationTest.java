@@ -0,0 +1,74 @@
+package com.edition.repository;
+
+import com.edition.dto.BookSummary;
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parcours page par page avec {@link BookSpecifications#after} : chaque livre est vu une
+ * fois, dans l'ordre d'un tri complet, y compris quand la clé de tri est nulle.
+ */
+@DataJpaTest
+class BookKeysetPaginationTest {
+    
+    @Autowired
+    private BookRepository bookRepository;
+    
+    @BeforeEach
+    void setUp() {
+        List<Book> books = new ArrayList<>();
+        Integer[] years = {1857, null, 1943, 1857, null, 2001, 1943, null, 1857};
+        for (int i = 0; i < years.length; i++) {
+            books.add(new Book(null, "Titre " + (char) ('A' + i % 3), "Auteur", String.format("978-%010d", i),
+                    10.0 + i % 2, null, null, years[i], BookCategory.ROMAN));
+        }
+        bookRepository.saveAllAndFlush(books);
+    }
+    
+    @ParameterizedTest
+    @CsvSource({"ID, false", "ID, true", "PUBLICATION_YEAR, false", "PUBLICATION_YEAR, true",
+            "TITLE, false", "TITLE, true", "PRICE, false", "PRICE, true"})
+    void pagesCoverTheFullOrderExactlyOnce(BookSortKey key, boolean descending) {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = key == BookSortKey.ID
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, key.attribute()).and(Sort.by(direction, "id"));
+        List<Long> expected = bookRepository.findAll(sort).stream().map(Book::getId).toList();
+        
+        List<Long> walked = new ArrayList<>();
+        Specification<Book> spec = Specification.where(null);
+        while (true) {
+            List<BookSummary> page = bookRepository.findSummaries(spec, key, descending, 2);
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(summary -> walked.add(summary.getId()));
+            BookSummary last = page.get(page.size() - 1);
+            spec = BookSpecifications.after(key, descending, value(key, last), last.getId());
+        }
+        
+        assertThat(walked).containsExactlyElementsOf(expected);
+    }
+    
+    private static Comparable<?> value(BookSortKey key, BookSummary summary) {
+        return switch (key) {
+            case ID -> null;
+            case TITLE -> summary.getTitle();
+            case AUTHOR -> summary.getAuthor();
+            case PRICE -> summary.getPrice();
+            case PUBLICATION_YEAR -> summary.getPublicationYear();
+        };
+    }
+}
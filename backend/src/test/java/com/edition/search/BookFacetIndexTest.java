@@ -0,0 +1,102 @@
+package com.edition.search;
+
+import com.edition.dto.FacetCountsResponse;
+import com.edition.event.BookChangedEvent;
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class BookFacetIndexTest {
+    
+    private final BookFacetIndex index = new BookFacetIndex(new double[]{20, 10});
+    
+    @BeforeEach
+    void setUp() {
+        index.rebuild(List.of(
+                book(1L, BookCategory.ROMAN, 1857, 9.0),
+                book(2L, BookCategory.ROMAN, 1862, 15.0),
+                book(3L, BookCategory.POESIE, 1857, 10.0),
+                book(4L, BookCategory.POESIE, 1913, 25.0),
+                book(5L, BookCategory.THEATRE, null, null)));
+    }
+    
+    @Test
+    void countsTheWholeCatalogWithoutSelection() {
+        FacetCountsResponse counts = index.count(BookFacetIndex.Selection.of(null, null, null), null);
+        
+        assertThat(counts.getTotal()).isEqualTo(5);
+        assertThat(counts.getCategories()).contains(entry(BookCategory.ROMAN, 2L), entry(BookCategory.POESIE, 2L),
+                entry(BookCategory.THEATRE, 1L), entry(BookCategory.ESSAI, 0L));
+        assertThat(counts.getDecades()).containsExactly(entry(1850, 2L), entry(1860, 1L), entry(1910, 1L));
+        // Bornes triées, borne inférieure incluse
+        assertThat(counts.getPrices()).containsExactly(entry("0-10", 1L), entry("10-20", 2L), entry("20+", 1L));
+    }
+    
+    @Test
+    void aFacetIgnoresItsOwnSelectionButAppliesTheOthers() {
+        FacetCountsResponse counts = index.count(
+                BookFacetIndex.Selection.of(Set.of(BookCategory.ROMAN), Set.of(1850), null), null);
+        
+        assertThat(counts.getTotal()).isEqualTo(1);
+        // Catégories : décennie 1850 seulement
+        assertThat(counts.getCategories()).contains(entry(BookCategory.ROMAN, 1L), entry(BookCategory.POESIE, 1L));
+        // Décennies : romans seulement
+        assertThat(counts.getDecades()).contains(entry(1850, 1L), entry(1860, 1L), entry(1910, 0L));
+        // Prix : romans des années 1850
+        assertThat(counts.getPrices()).containsExactly(entry("0-10", 1L), entry("10-20", 0L), entry("20+", 0L));
+    }
+    
+    @Test
+    void valuesOfOneFacetAreCombinedWithOr() {
+        FacetCountsResponse counts = index.count(
+                BookFacetIndex.Selection.of(null, null, List.of("0-10", "20+")), null);
+        
+        assertThat(counts.getTotal()).isEqualTo(2);
+        assertThat(counts.getCategories()).contains(entry(BookCategory.ROMAN, 1L), entry(BookCategory.POESIE, 1L));
+    }
+    
+    @Test
+    void countsAreRestrictedToTheGivenBooks() {
+        FacetCountsResponse counts = index.count(BookFacetIndex.Selection.of(null, null, null), Set.of(2L, 4L, 99L));
+        
+        assertThat(counts.getTotal()).isEqualTo(2);
+        assertThat(counts.getCategories()).contains(entry(BookCategory.ROMAN, 1L), entry(BookCategory.POESIE, 1L));
+    }
+    
+    @Test
+    void changesMoveTheBookBetweenValues() {
+        index.onBookChanged(BookChangedEvent.updated(book(2L, BookCategory.ROMAN, 1862, 15.0),
+                book(2L, BookCategory.ESSAI, 1913, 30.0)));
+        index.onBookChanged(BookChangedEvent.deleted(book(1L, BookCategory.ROMAN, 1857, 9.0)));
+        index.onBookChanged(BookChangedEvent.created(book(6L, BookCategory.ROMAN, 2001, 5.0)));
+        
+        FacetCountsResponse counts = index.count(BookFacetIndex.Selection.of(null, null, null), null);
+        
+        assertThat(counts.getTotal()).isEqualTo(5);
+        assertThat(counts.getCategories()).contains(entry(BookCategory.ROMAN, 1L), entry(BookCategory.ESSAI, 1L));
+        // Une décennie vidée disparaît
+        assertThat(counts.getDecades()).containsExactly(entry(1850, 1L), entry(1910, 2L), entry(2000, 1L));
+        assertThat(counts.getPrices()).containsExactly(entry("0-10", 1L), entry("10-20", 1L), entry("20+", 2L));
+    }
+    
+    @Test
+    void rejectsInvalidDecadesAndPriceRanges() {
+        assertThatThrownBy(() -> index.count(BookFacetIndex.Selection.of(null, Set.of(1855), null), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.count(BookFacetIndex.Selection.of(null, null, Set.of("5-15")), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("0-10, 10-20, 20+");
+    }
+    
+    private static Book book(Long id, BookCategory category, Integer year, Double price) {
+        return new Book(id, "Titre " + id, "Auteur", "978-000000000" + id, price, null, null, year, category);
+    }
+}
@@ -0,0 +1,91 @@
+package com.edition.search;
+
+import com.edition.event.BookChangedEvent;
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookSearchIndexTest {
+    
+    private final BookSearchIndex index = new BookSearchIndex();
+    
+    @Test
+    void matchesWholeTermsAndPrefixes() {
+        index.rebuild(List.of(
+                book(1L, "Les Fleurs du Mal", "Charles Baudelaire"),
+                book(2L, "Le Fleuve", "Jean Renoir")));
+        
+        assertThat(index.search("fleurs", 10)).containsExactly(1L);
+        assertThat(index.search("fleu", 10)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("baud", 10)).containsExactly(1L);
+    }
+    
+    @Test
+    void foldsAccentsAndLigatures() {
+        index.rebuild(List.of(
+                book(1L, "Poésie complète", "Arthur Rimbaud"),
+                book(2L, "L'Œuvre", "Émile Zola")));
+        
+        assertThat(index.search("POESIE", 10)).containsExactly(1L);
+        assertThat(index.search("oeuvre", 10)).containsExactly(2L);
+        assertThat(index.search("émile", 10)).containsExactly(2L);
+        assertThat(index.search("emile zola", 10)).containsExactly(2L);
+    }
+    
+    @Test
+    void combinesTermsWithAnd() {
+        index.rebuild(List.of(
+                book(1L, "Le Rouge et le Noir", "Stendhal"),
+                book(2L, "Le Noir", "Anonyme")));
+        
+        assertThat(index.search("noir rouge", 10)).containsExactly(1L);
+        assertThat(index.search("noir absent", 10)).isEmpty();
+    }
+    
+    @Test
+    void ranksExactTermsBeforePrefixes() {
+        index.rebuild(List.of(
+                book(1L, "Marines", "Auteur"),
+                book(2L, "Mari", "Auteur")));
+        
+        assertThat(index.search("mari", 10)).containsExactly(2L, 1L);
+    }
+    
+    @Test
+    void matchingExpandsPrefixesWithoutLimit() {
+        List<Book> books = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            books.add(book(id, String.format("Mot%03d", id), "Auteur"));
+        }
+        index.rebuild(books);
+        
+        assertThat(index.matching("mot", Set.of(BookSearchIndex.Field.TITLE))).hasSize(300);
+        assertThat(index.search("mot", 1000)).hasSizeLessThan(300);
+    }
+    
+    @Test
+    void followsUpdatesAndDeletions() {
+        Book before = book(1L, "Ancien titre", "Auteur");
+        Book after = book(1L, "Nouveau titre", "Auteur");
+        index.rebuild(List.of(before));
+        
+        index.onBookChanged(BookChangedEvent.updated(before, after));
+        assertThat(index.search("ancien", 10)).isEmpty();
+        assertThat(index.search("nouveau", 10)).containsExactly(1L);
+        
+        index.onBookChanged(BookChangedEvent.deleted(after));
+        assertThat(index.search("nouveau", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+    
+    private static Book book(Long id, String title, String author) {
+        return new Book(id, title, author, String.format("978-%010d", id), 10.0, null, null, 1900,
+                BookCategory.ROMAN);
+    }
+}
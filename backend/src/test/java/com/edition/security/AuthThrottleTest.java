@@ -0,0 +1,47 @@
+package com.edition.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthThrottleTest {
+    
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AuthThrottle throttle = new AuthThrottle(100, Duration.ofMinutes(1),
+            3, Duration.ofMinutes(1), 1000, registry);
+    
+    @Test
+    void successfulLoginsDoNotChargeTheUsernameBucket() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(throttle.checkLogin("10.0.0.1", "alice")).isEmpty();
+        }
+    }
+    
+    @Test
+    void failuresThrottleTheUserFromEveryAddress() {
+        for (int i = 0; i < 3; i++) {
+            String ip = "10.0.0." + i;
+            assertThat(throttle.checkLogin(ip, "alice")).isEmpty();
+            throttle.loginFailed("alice");
+        }
+        
+        assertThat(throttle.checkLogin("10.0.0.99", "alice")).isPresent();
+        assertThat(throttle.checkLogin("10.0.0.99", " Alice ")).isPresent();
+        assertThat(throttle.checkLogin("10.0.0.99", "bob")).isEmpty();
+        assertThat(registry.counter("auth.throttled", "scope", "username").count()).isEqualTo(2);
+    }
+    
+    @Test
+    void everyAttemptChargesTheAddressBucket() {
+        AuthThrottle strict = new AuthThrottle(2, Duration.ofMinutes(1), 3, Duration.ofMinutes(1), 1000, registry);
+        
+        assertThat(strict.checkLogin("10.0.0.1", "alice")).isEmpty();
+        assertThat(strict.checkRegister("10.0.0.1")).isEmpty();
+        
+        assertThat(strict.checkLogin("10.0.0.1", "bob")).isPresent();
+        assertThat(registry.counter("auth.throttled", "scope", "ip").count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,52 @@
+package com.edition.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+    
+    @Test
+    void allowsCapacityThenReportsTheWait() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, Duration.ofMinutes(1), 100);
+        
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        
+        Duration wait = limiter.tryAcquire("a");
+        assertThat(wait).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(20));
+    }
+    
+    @Test
+    void keysHaveSeparateBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, Duration.ofMinutes(1), 100);
+        
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+    
+    @Test
+    void peekDoesNotTakeATokenNorCreateABucket() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, Duration.ofMinutes(1), 100);
+        
+        assertThat(limiter.peek("a")).isZero();
+        assertThat(limiter.peek("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.peek("a")).isPositive();
+    }
+    
+    @Test
+    void refillsOverTheRefillPeriod() throws InterruptedException {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, Duration.ofMillis(100), 100);
+        
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive().isLessThanOrEqualTo(Duration.ofMillis(100));
+        Thread.sleep(150);
+        
+        assertThat(limiter.tryAcquire("a")).isZero();
+    }
+}
@@ -0,0 +1,76 @@
+package com.edition.service;
+
+import com.edition.event.BookChangedEvent;
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookCacheTest {
+    
+    private final BookCache cache = new BookCache(100, 1000, Duration.ofMinutes(1));
+    
+    @Test
+    void getReturnsACopyOfTheCachedBook() {
+        AtomicInteger loads = new AtomicInteger();
+        Book loaded = book(1L, "Candide", BookCategory.ROMAN);
+    
+        Book first = cache.get(1L, id -> { loads.incrementAndGet(); return Optional.of(loaded); }).orElseThrow();
+        first.setTitle("Modifié");
+        loaded.setTitle("Modifié aussi");
+        Book second = cache.get(1L, id -> { loads.incrementAndGet(); return Optional.of(loaded); }).orElseThrow();
+    
+        assertThat(loads).hasValue(1);
+        assertThat(second.getTitle()).isEqualTo("Candide");
+        assertThat(second).isNotSameAs(first);
+    }
+    
+    @Test
+    void getAllByIdsReturnsCopies() {
+        cache.warmUp(List.of(book(1L, "Candide", BookCategory.ROMAN), book(2L, "Alcools", BookCategory.POESIE)));
+    
+        Map<Long, Book> first = cache.getAll(List.of(1L, 2L), ids -> List.of());
+        first.get(2L).setTitle("Modifié");
+    
+        assertThat(cache.getAll(List.of(2L), ids -> List.of()).get(2L).getTitle()).isEqualTo("Alcools");
+        assertThat(cache.get(2L, id -> Optional.empty())).map(Book::getTitle).contains("Alcools");
+    }
+    
+    @Test
+    void listsAreImmutable() {
+        cache.warmUp(List.of(book(1L, "Candide", BookCategory.ROMAN)));
+    
+        List<Book> all = cache.getAll(List::of);
+    
+        assertThat(all).extracting(Book::getTitle).containsExactly("Candide");
+        assertThatThrownBy(() -> all.add(book(3L, "Intrus", BookCategory.ROMAN)))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> cache.getByCategory(BookCategory.ROMAN, List::of).clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+    
+    @Test
+    void changeInvalidatesTheBookAndBothCategoryLists() {
+        Book before = book(1L, "Candide", BookCategory.ROMAN);
+        cache.warmUp(List.of(before));
+        Book after = book(1L, "Candide", BookCategory.POESIE);
+    
+        cache.onBookChanged(BookChangedEvent.updated(before, after));
+    
+        assertThat(cache.get(1L, id -> Optional.of(after))).map(Book::getCategory).contains(BookCategory.POESIE);
+        assertThat(cache.getByCategory(BookCategory.ROMAN, List::of)).isEmpty();
+        assertThat(cache.getByCategory(BookCategory.POESIE, () -> List.of(after))).hasSize(1);
+    }
+    
+    private static Book book(Long id, String title, BookCategory category) {
+        return new Book(id, title, "Auteur", "978-0000000000", 10.0, null, null, 1900, category);
+    }
+}
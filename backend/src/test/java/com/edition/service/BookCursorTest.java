@@ -0,0 +1,61 @@
+package com.edition.service;
+
+import com.edition.dto.BookSummary;
+import com.edition.model.BookCategory;
+import com.edition.repository.BookSortKey;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookCursorTest {
+    
+    @Test
+    void idCursorRoundTrips() {
+        BookCursor cursor = BookCursor.after(BookSortKey.ID, summary(42L, "Titre", 1900));
+        
+        BookCursor decoded = BookCursor.decode(cursor.encode(BookSortKey.ID));
+        
+        assertThat(decoded.id()).isEqualTo(42L);
+        assertThat(decoded.sortValue()).isNull();
+    }
+    
+    @Test
+    void sortValueRoundTrips() {
+        BookCursor cursor = BookCursor.after(BookSortKey.PUBLICATION_YEAR, summary(7L, "Titre", 1857));
+        
+        BookCursor decoded = BookCursor.decode(cursor.encode(BookSortKey.PUBLICATION_YEAR));
+        
+        assertThat(decoded).isEqualTo(new BookCursor("1857", 7L));
+        assertThat(BookSortKey.PUBLICATION_YEAR.parse(decoded.sortValue())).isEqualTo(1857);
+    }
+    
+    @Test
+    void nullSortValueIsDistinctFromTheStringNull() {
+        BookCursor missing = BookCursor.after(BookSortKey.PUBLICATION_YEAR, summary(3L, "Titre", null));
+        BookCursor literal = BookCursor.after(BookSortKey.TITLE, summary(3L, "n", 1900));
+        
+        assertThat(BookCursor.decode(missing.encode(BookSortKey.PUBLICATION_YEAR)).sortValue()).isNull();
+        assertThat(BookCursor.decode(literal.encode(BookSortKey.TITLE)).sortValue()).isEqualTo("n");
+    }
+    
+    @Test
+    void sortValueMayContainTheSeparator() {
+        BookCursor cursor = BookCursor.after(BookSortKey.TITLE, summary(9L, "a\u0000b", 1900));
+        
+        assertThat(BookCursor.decode(cursor.encode(BookSortKey.TITLE))).isEqualTo(new BookCursor("a\u0000b", 9L));
+    }
+    
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> BookCursor.decode("%%%"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Curseur de pagination invalide");
+        assertThatThrownBy(() -> BookCursor.decode("eDEy"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private static BookSummary summary(Long id, String title, Integer year) {
+        return new BookSummary(id, title, "Auteur", "978-0000000000", 10.0, null, year, BookCategory.ROMAN);
+    }
+}
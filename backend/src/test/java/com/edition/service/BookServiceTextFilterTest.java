@@ -0,0 +1,92 @@
+package com.edition.service;
+
+import com.edition.dto.BookFilter;
+import com.edition.dto.BookSummary;
+import com.edition.dto.CursorPage;
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+import com.edition.repository.BookRepository;
+import com.edition.search.BookFacetIndex;
+import com.edition.search.BookSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Filtres texte au-delà de {@code books.filter.max-in-ids} : les identifiants sont appliqués
+ * en mémoire et le résultat reste celui de la clause IN, dans le même ordre.
+ */
+@DataJpaTest
+class BookServiceTextFilterTest {
+    
+    @Autowired
+    private BookRepository bookRepository;
+    
+    private final BookSearchIndex searchIndex = new BookSearchIndex();
+    
+    @BeforeEach
+    void setUp() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            String title = i % 3 == 0 ? "Autre recueil " + i : "Roman noir " + i;
+            Integer year = i % 4 == 0 ? null : 1900 + i % 5;
+            books.add(new Book(null, title, "Auteur " + i % 2, String.format("978-%010d", i),
+                    10.0 + i % 7, null, null, year, i % 2 == 0 ? BookCategory.ROMAN : BookCategory.POESIE));
+        }
+        searchIndex.rebuild(bookRepository.saveAllAndFlush(books));
+    }
+    
+    @ParameterizedTest
+    @CsvSource({"id, asc", "id, desc", "publicationYear, asc", "publicationYear, desc", "price, desc"})
+    void pagesAboveTheCapMatchTheInClause(String sort, String direction) {
+        BookFilter filter = new BookFilter("noir", null, null, null, null, null, null, null);
+    
+        assertThat(walk(service(2), filter, sort, direction))
+                .containsExactlyElementsOf(walk(service(1000), filter, sort, direction))
+                .hasSize(15);
+    }
+    
+    @ParameterizedTest
+    @CsvSource({"id, asc", "title, desc", "publicationYear, asc"})
+    void filterAboveTheCapMatchesTheInClause(String sort, String direction) {
+        BookFilter filter = new BookFilter("noir", BookCategory.ROMAN, null, null, null, null, null, null);
+    
+        assertThat(ids(service(2).filter(filter, sort, direction)))
+                .containsExactlyElementsOf(ids(service(1000).filter(filter, sort, direction)))
+                .isNotEmpty();
+    }
+    
+    private BookService service(int maxInIds) {
+        BookService service = new BookService(bookRepository, searchIndex, new BookFacetIndex(new double[]{10}),
+                new BookCache(100, 1000, Duration.ofMinutes(1)), event -> { }, null);
+        ReflectionTestUtils.setField(service, "defaultPageSize", 4);
+        ReflectionTestUtils.setField(service, "maxPageSize", 4);
+        ReflectionTestUtils.setField(service, "streamFetchSize", 3);
+        ReflectionTestUtils.setField(service, "maxInIds", maxInIds);
+        return service;
+    }
+    
+    private static List<Long> walk(BookService service, BookFilter filter, String sort, String direction) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<BookSummary> page = service.findPage(filter, cursor, 4, sort, direction);
+            page.getContent().forEach(summary -> ids.add(summary.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+    
+    private static List<Long> ids(List<Book> books) {
+        return books.stream().map(Book::getId).toList();
+    }
+}
@@ -0,0 +1,113 @@
+package com.edition.service;
+
+import com.edition.event.BookChangedEvent;
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+import com.edition.repository.BookChangeRepository;
+import com.edition.repository.BookRepository;
+import com.edition.search.BookFacetIndex;
+import com.edition.search.BookSearchIndex;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Une écriture du catalogue et son entrée au journal sont validées ou annulées ensemble.
+ */
+@DataJpaTest
+@Import({BookService.class, ChangeFeed.class, CatalogVersion.class, BookServiceTransactionTest.FailingListener.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookServiceTransactionTest {
+    
+    @MockBean
+    private BookSearchIndex searchIndex;
+    
+    @MockBean
+    private BookFacetIndex facetIndex;
+    
+    @MockBean
+    private BookCache bookCache;
+    
+    @MockBean
+    private Validator validator;
+    
+    @Autowired
+    private BookService bookService;
+    
+    @Autowired
+    private BookRepository bookRepository;
+    
+    @Autowired
+    private BookChangeRepository changeRepository;
+    
+    @Autowired
+    private FailingListener failingListener;
+    
+    @AfterEach
+    void tearDown() {
+        failingListener.failing = false;
+        changeRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+    }
+    
+    @Test
+    void writesTheBookAndItsChangeTogether() {
+        Book saved = bookService.save(book("Candide"));
+        
+        Book updated = bookService.update(saved.getId(), book("Zadig"), saved.getVersion()).orElseThrow();
+        
+        assertThat(updated.getVersion()).isEqualTo(saved.getVersion() + 1);
+        assertThat(changeRepository.count()).isEqualTo(2);
+    }
+    
+    @Test
+    void failedUpdateLeavesTheBookUnchanged() {
+        Book saved = bookService.save(book("Candide"));
+        failingListener.failing = true;
+        
+        assertThatThrownBy(() -> bookService.update(saved.getId(), book("Zadig"), saved.getVersion()))
+                .isInstanceOf(IllegalStateException.class);
+        
+        Book stored = bookRepository.findById(saved.getId()).orElseThrow();
+        assertThat(stored.getTitle()).isEqualTo("Candide");
+        assertThat(stored.getVersion()).isEqualTo(saved.getVersion());
+        assertThat(changeRepository.count()).isEqualTo(1);
+    }
+    
+    @Test
+    void failedDeleteKeepsTheBook() {
+        Book saved = bookService.save(book("Candide"));
+        failingListener.failing = true;
+        
+        assertThatThrownBy(() -> bookService.delete(saved.getId())).isInstanceOf(IllegalStateException.class);
+        
+        assertThat(bookRepository.existsById(saved.getId())).isTrue();
+        assertThat(changeRepository.count()).isEqualTo(1);
+    }
+    
+    private static Book book(String title) {
+        return new Book(null, title, "Voltaire", "978-0000000001", 10.0, null, null, 1759, BookCategory.ROMAN);
+    }
+    
+    static class FailingListener {
+        
+        volatile boolean failing;
+        
+        @EventListener
+        void onBookChanged(BookChangedEvent event) {
+            if (failing) {
+                throw new IllegalStateException("refusé");
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.edition.service;
+
+import com.edition.dto.ImportError;
+import com.edition.dto.ImportReport;
+import com.edition.repository.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Import par lots : une ligne que la base refuse est rejetée seule, sans faire échouer l'import.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.jakarta.persistence.validation.mode=none")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookTransferServiceImportTest {
+    
+    private static final String LONG_URL = "https://example.org/" + "x".repeat(300);
+    
+    @Autowired
+    private BookRepository bookRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+    }
+    
+    @Test
+    void rejectsTooLongColumnsDuringValidation() throws IOException {
+        ImportReport report = service(Validation.buildDefaultValidatorFactory().getValidator())
+                .importNdjson(ndjson(LONG_URL));
+    
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(ImportError::getLine).containsExactly(2L);
+        assertThat(report.getErrors().get(0).getMessage()).startsWith("coverUrl:");
+    }
+    
+    @Test
+    void fallsBackToRowByRowWhenTheDatabaseRefusesTheChunk() throws IOException {
+        // Aucune validation, ni ici ni par Hibernate : seule la base refuse la ligne 2
+        ImportReport report = service(Mockito.mock(Validator.class)).importNdjson(ndjson(LONG_URL));
+    
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(ImportError::getLine).containsExactly(2L);
+        assertThat(report.getErrors().get(0).getMessage()).startsWith("Refusé par la base");
+        assertThat(bookRepository.existsByIsbn("978-0000000001")).isTrue();
+        assertThat(bookRepository.existsByIsbn("978-0000000002")).isFalse();
+        assertThat(bookRepository.existsByIsbn("978-0000000003")).isTrue();
+    }
+    
+    private BookTransferService service(Validator validator) {
+        BookTransferService service = new BookTransferService(bookRepository, null, validator,
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                new TransactionTemplate(transactionManager), event -> { });
+        ReflectionTestUtils.setField(service, "chunkSize", 10);
+        ReflectionTestUtils.setField(service, "maxErrors", 10);
+        return service;
+    }
+    
+    private static ByteArrayInputStream ndjson(String secondCoverUrl) {
+        String lines = book(1, "https://example.org/1.jpg") + "\n"
+                + book(2, secondCoverUrl) + "\n"
+                + book(3, null) + "\n";
+        return new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String book(int n, String coverUrl) {
+        return "{\"title\":\"Titre " + n + "\",\"author\":\"Auteur\",\"isbn\":\"978-000000000" + n
+                + "\",\"price\":12.5,\"category\":\"ROMAN\""
+                + (coverUrl == null ? "" : ",\"coverUrl\":\"" + coverUrl + "\"") + "}";
+    }
+}
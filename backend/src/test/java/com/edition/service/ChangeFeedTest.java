@@ -0,0 +1,167 @@
+package com.edition.service;
+
+import com.edition.dto.BookChangeResponse;
+import com.edition.dto.ChangeFeedPage;
+import com.edition.event.BookChangedEvent;
+import com.edition.model.Book;
+import com.edition.model.BookCategory;
+import com.edition.model.BookChange;
+import com.edition.repository.BookChangeRepository;
+import com.edition.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Les entrées du journal sont validées ou annulées avec la modification qui les produit, et
+ * les consommateurs en mémoire n'appliquent que les modifications validées.
+ */
+@DataJpaTest
+@Import({ChangeFeed.class, CatalogVersion.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChangeFeedTest {
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    @Autowired
+    private BookRepository bookRepository;
+    
+    @Autowired
+    private BookChangeRepository changeRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @AfterEach
+    void tearDown() {
+        changeRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+    }
+    
+    @Test
+    void changesOfATransactionAreWrittenWithIt() {
+        long version = catalogVersion.current();
+        
+        List<Book> books = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Book> saved = bookRepository.saveAll(List.of(book(1), book(2), book(3)));
+            saved.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.created(book)));
+            // Rien n'est écrit ni appliqué avant la validation
+            assertThat(changeRepository.count()).isZero();
+            assertThat(catalogVersion.current()).isEqualTo(version);
+            return saved;
+        });
+        
+        assertThat(changeRepository.findAll()).extracting(BookChange::getBookId)
+                .containsExactlyInAnyOrderElementsOf(books.stream().map(Book::getId).toList());
+        assertThat(catalogVersion.current()).isEqualTo(version + books.size());
+    }
+    
+    @Test
+    void rolledBackChangesLeaveNoEntry() {
+        long version = catalogVersion.current();
+        
+        assertThatThrownBy(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Book saved = bookRepository.save(book(1));
+            eventPublisher.publishEvent(BookChangedEvent.created(saved));
+            throw new IllegalStateException("annulée");
+        })).isInstanceOf(IllegalStateException.class);
+        
+        assertThat(changeRepository.count()).isZero();
+        assertThat(bookRepository.count()).isZero();
+        assertThat(catalogVersion.current()).isEqualTo(version);
+    }
+    
+    @Test
+    void changeOutsideATransactionIsWrittenInItsOwn() {
+        Book saved = bookRepository.save(book(1));
+        
+        eventPublisher.publishEvent(BookChangedEvent.created(saved));
+        
+        assertThat(changeRepository.findAll()).extracting(BookChange::getType)
+                .containsExactly(BookChange.Type.CREATED);
+    }
+    
+    @Test
+    void pageCarriesTheBooksAndTombstones() {
+        Book first = bookRepository.save(book(0));
+        eventPublisher.publishEvent(BookChangedEvent.created(first));
+        String head = changeFeed.page(null, null).orElseThrow().getCursor();
+        Book kept = bookRepository.save(book(1));
+        Book deleted = bookRepository.save(book(2));
+        eventPublisher.publishEvent(BookChangedEvent.created(kept));
+        eventPublisher.publishEvent(BookChangedEvent.created(deleted));
+        bookRepository.delete(deleted);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(deleted));
+        
+        ChangeFeedPage page = changeFeed.page(head, 10).orElseThrow();
+        
+        assertThat(page.getChanges()).extracting(BookChangeResponse::getType)
+                .containsExactly(BookChange.Type.CREATED, BookChange.Type.CREATED, BookChange.Type.DELETED);
+        assertThat(page.getChanges().get(0).getBook().getTitle()).isEqualTo("Titre 1");
+        assertThat(page.getChanges().get(1).getBook()).isNull();
+        assertThat(page.isHasMore()).isFalse();
+    }
+    
+    @Test
+    void purgeKeepsTheNewestExpiredEntry() {
+        List<Long> ids = publishChanges(3);
+        
+        new ChangeFeed(changeRepository, bookRepository, 100, Duration.ZERO, Duration.ofMinutes(1),
+                transactionManager).purge();
+        
+        assertThat(changeRepository.findAll()).extracting(BookChange::getId).containsExactly(ids.get(2));
+    }
+    
+    @Test
+    void gapsInTheIdentifiersDoNotExpireACursor() {
+        List<Long> ids = publishChanges(3);
+        // Trou dans la séquence (transaction annulée, etc.) avant la première entrée restante
+        changeRepository.deleteById(ids.get(0));
+        
+        assertThat(changeFeed.page(String.valueOf(ids.get(0) - 1), 10)).isPresent();
+    }
+    
+    @Test
+    void onlyACursorBeforeThePurgeBoundaryExpires() {
+        List<Long> ids = publishChanges(3);
+        ChangeFeed feed = new ChangeFeed(changeRepository, bookRepository, 100, Duration.ZERO,
+                Duration.ofMinutes(1), transactionManager);
+        feed.purge();
+        
+        assertThat(feed.page(String.valueOf(ids.get(0)), 10)).isEmpty();
+        assertThat(feed.page(String.valueOf(ids.get(1)), 10).orElseThrow().getChanges())
+                .extracting(BookChangeResponse::getBookId).hasSize(1);
+    }
+    
+    private List<Long> publishChanges(int count) {
+        for (int n = 1; n <= count; n++) {
+            eventPublisher.publishEvent(BookChangedEvent.created(bookRepository.save(book(n))));
+        }
+        return changeRepository.findAll().stream().map(BookChange::getId).sorted().toList();
+    }
+    
+    private static Book book(int n) {
+        return new Book(null, "Titre " + n, "Auteur", String.format("978-%010d", n), 10.0, null, null,
+                1900, BookCategory.ROMAN);
+    }
+}
@@ -0,0 +1,87 @@
+package com.edition.service;
+
+import com.edition.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rotation des refresh tokens : un token rejoué révoque toute sa session, et seulement elle.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenServiceTest {
+    
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAllInBatch();
+    }
+    
+    @Test
+    void rotationReplacesTheToken() {
+        RefreshTokenService service = service(Duration.ofDays(30));
+        String first = service.issue("alice");
+        
+        RefreshTokenService.Rotation rotation = service.rotate(first).orElseThrow();
+        
+        assertThat(rotation.username()).isEqualTo("alice");
+        assertThat(rotation.refreshToken()).isNotEqualTo(first);
+        assertThat(service.rotate(rotation.refreshToken())).map(RefreshTokenService.Rotation::username)
+                .contains("alice");
+    }
+    
+    @Test
+    void reusedTokenRevokesItsWholeFamily() {
+        RefreshTokenService service = service(Duration.ofDays(30));
+        String stolen = service.issue("alice");
+        String current = service.rotate(stolen).orElseThrow().refreshToken();
+        String otherSession = service.issue("alice");
+        
+        assertThat(service.rotate(stolen)).isEmpty();
+        
+        // Le token légitime de la même session est révoqué aussi, pas l'autre session
+        assertThat(service.rotate(current)).isEmpty();
+        assertThat(service.rotate(otherSession)).isPresent();
+    }
+    
+    @Test
+    void expiredTokenIsRefusedAndItsFamilyDeleted() {
+        RefreshTokenService service = service(Duration.ofSeconds(-1));
+        String expired = service.issue("alice");
+        
+        assertThat(service.rotate(expired)).isEmpty();
+        assertThat(refreshTokenRepository.count()).isZero();
+    }
+    
+    @Test
+    void revokeEndsTheSessionOnly() {
+        RefreshTokenService service = service(Duration.ofDays(30));
+        String first = service.issue("alice");
+        String current = service.rotate(first).orElseThrow().refreshToken();
+        String otherSession = service.issue("alice");
+        
+        service.revoke(current);
+        
+        assertThat(service.rotate(current)).isEmpty();
+        assertThat(service.rotate(otherSession)).isPresent();
+    }
+    
+    @Test
+    void unknownTokenIsRefused() {
+        assertThat(service(Duration.ofDays(30)).rotate("inconnu")).isEmpty();
+    }
+    
+    private RefreshTokenService service(Duration lifetime) {
+        return new RefreshTokenService(refreshTokenRepository, lifetime);
+    }
+}
@@ -0,0 +1,84 @@
+package com.edition.service;
+
+import com.edition.model.Role;
+import com.edition.model.User;
+import com.edition.repository.UserRepository;
+import com.edition.security.PasswordHashingExecutor;
+import com.edition.security.PrincipalCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Le principal mis en cache n'est invalidé qu'après la validation du changement de rôle.
+ */
+@DataJpaTest
+@Import(UserService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserServiceTransactionTest {
+    
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+    
+    @MockBean
+    private PrincipalCache principalCache;
+    
+    @MockBean
+    private PasswordHashingExecutor passwordHashing;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @BeforeEach
+    void setUp() {
+        userRepository.save(new User("alice", "hash", Role.ROLE_USER));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+    
+    @Test
+    void invalidatesThePrincipalAfterCommit() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.updateRole("alice", Role.ROLE_ADMIN);
+            verify(principalCache, never()).invalidate(any());
+        });
+        
+        verify(principalCache).invalidate("alice");
+        assertThat(userRepository.findByUsername("alice")).map(User::getRole).contains(Role.ROLE_ADMIN);
+    }
+    
+    @Test
+    void keepsThePrincipalWhenTheChangeIsRolledBack() {
+        assertThatThrownBy(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.updateRole("alice", Role.ROLE_ADMIN);
+            throw new IllegalStateException("annulée");
+        })).isInstanceOf(IllegalStateException.class);
+        
+        verify(principalCache, never()).invalidate(any());
+        assertThat(userRepository.findByUsername("alice")).map(User::getRole).contains(Role.ROLE_USER);
+    }
+}
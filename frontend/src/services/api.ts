@@ -1,4 +1,5 @@
 import axios from 'axios'
+import type { AuthResponse } from '@/types'
 
 const api = axios.create({
   baseURL: '/api',  // Utilise le proxy Vite configuré dans vite.config.ts
@@ -21,13 +22,41 @@ api.interceptors.request.use(
   }
 )
 
-// Intercepteur de réponse - gère les erreurs 401
+// Renouvellement du token d'accès, partagé par les requêtes qui échouent en même temps
+let refreshing: Promise<string | null> | null = null
+
+function refreshAccessToken(): Promise<string | null> {
+  const refreshToken = localStorage.getItem('refreshToken')
+  if (!refreshToken) return Promise.resolve(null)
+  refreshing ??= axios.post<AuthResponse>('/api/auth/refresh', { refreshToken })
+    .then((response) => {
+      localStorage.setItem('token', response.data.token)
+      localStorage.setItem('refreshToken', response.data.refreshToken)
+      return response.data.token
+    })
+    .catch(() => null)
+    .finally(() => {
+      refreshing = null
+    })
+  return refreshing
+}
+
+// Intercepteur de réponse - renouvelle le token sur 401, sinon renvoie vers le login
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
-    if (error.response?.status === 401) {
-      // Token expiré ou invalide
+  async (error) => {
+    const original = error.config
+    if (error.response?.status === 401 && original && !original._retry) {
+      original._retry = true
+      const token = await refreshAccessToken()
+      if (token) {
+        original.headers.Authorization = `Bearer ${token}`
+        return api(original)
+      }
+      
+      // Session expirée ou révoquée
       localStorage.removeItem('token')
+      localStorage.removeItem('refreshToken')
       localStorage.removeItem('user')
       
       // Rediriger vers la page de login si pas déjà dessus
@@ -47,6 +47,7 @@ export const useAuthStore = defineStore('auth', () => {
       
       // Persister dans le localStorage
       localStorage.setItem('token', response.data.token)
+      localStorage.setItem('refreshToken', response.data.refreshToken)
       localStorage.setItem('user', JSON.stringify(user.value))
       
       return true
@@ -77,12 +78,19 @@ export const useAuthStore = defineStore('auth', () => {
   }
 
   /**
-   * Déconnexion
+   * Déconnexion : révoque le token d'accès et la session côté serveur
    */
   function logout() {
+    if (token.value) {
+      const refreshToken = localStorage.getItem('refreshToken')
+      api.post('/auth/logout', refreshToken ? { refreshToken } : {}, {
+        headers: { Authorization: `Bearer ${token.value}` }
+      }).catch(() => {})
+    }
     token.value = null
     user.value = null
     localStorage.removeItem('token')
+    localStorage.removeItem('refreshToken')
     localStorage.removeItem('user')
   }
 
@@ -1,7 +1,26 @@
 import { defineStore } from 'pinia'
 import { ref, computed } from 'vue'
 import api from '@/services/api'
-import type { Book, BookCategory } from '@/types'
+import type { Book, BookCategory, CatalogStats, CursorPage, FacetCounts } from '@/types'
+
+const PAGE_SIZE = 50
+
+const EDITABLE_FIELDS = [
+  'title', 'author', 'isbn', 'price', 'description', 'coverUrl', 'publicationYear', 'category'
+] as const
+
+/**
+ * Champs modifiables dont la valeur diffère ; un champ vidé est envoyé à null (effacement)
+ */
+function changedFields(before: Book, after: Book): Partial<Record<keyof Book, unknown>> {
+  const changes: Partial<Record<keyof Book, unknown>> = {}
+  for (const field of EDITABLE_FIELDS) {
+    if ((after[field] ?? null) !== (before[field] ?? null)) {
+      changes[field] = after[field] ?? null
+    }
+  }
+  return changes
+}
 
 export const useBookStore = defineStore('books', () => {
   // ============ STATE ============
@@ -10,6 +29,16 @@ export const useBookStore = defineStore('books', () => {
   const loading = ref(false)
   const error = ref<string | null>(null)
   
+  // Statistiques calculées par l'API sur tout le catalogue
+  const stats = ref<CatalogStats | null>(null)
+  
+  // Comptes par facette pour la recherche et la catégorie courantes
+  const facets = ref<FacetCounts | null>(null)
+  
+  // Pagination par curseur
+  const nextCursor = ref<string | null>(null)
+  const hasMore = ref(false)
+  
   // Filtres
   const searchQuery = ref('')
   const selectedCategory = ref<BookCategory | null>(null)
@@ -17,41 +46,22 @@ export const useBookStore = defineStore('books', () => {
   // ============ GETTERS ============
   
   /**
-   * Livres filtrés par recherche et catégorie
+   * Livres filtrés par recherche et catégorie (le filtrage est fait par l'API)
    */
-  const filteredBooks = computed(() => {
-    let result = books.value
-    
-    // Filtre par recherche textuelle
-    if (searchQuery.value) {
-      const query = searchQuery.value.toLowerCase()
-      result = result.filter(book =>
-        book.title.toLowerCase().includes(query) ||
-        book.author.toLowerCase().includes(query) ||
-        book.isbn.includes(query)
-      )
-    }
-    
-    // Filtre par catégorie
-    if (selectedCategory.value) {
-      result = result.filter(book => book.category === selectedCategory.value)
-    }
-    
-    return result
-  })
+  const filteredBooks = computed(() => books.value)
 
   /**
-   * Nombre total de livres
+   * Nombre total de livres du catalogue
    */
-  const bookCount = computed(() => books.value.length)
+  const bookCount = computed(() => stats.value?.total.count ?? books.value.length)
   
   /**
-   * Nombre de livres filtrés
+   * Nombre de livres filtrés, y compris ceux des pages non chargées
    */
-  const filteredCount = computed(() => filteredBooks.value.length)
+  const filteredCount = computed(() => facets.value?.total ?? filteredBooks.value.length)
 
   /**
-   * Livres groupés par catégorie
+   * Livres chargés groupés par catégorie
    */
   const booksByCategory = computed(() => {
     const grouped: Record<string, Book[]> = {}
@@ -68,30 +78,51 @@ export const useBookStore = defineStore('books', () => {
   })
 
   /**
-   * Statistiques des catégories
+   * Nombre de livres par catégorie, sur tout le catalogue
    */
   const categoryStats = computed(() => {
-    const stats: Record<string, number> = {}
+    const counts: Record<string, number> = {}
     
-    books.value.forEach(book => {
-      stats[book.category] = (stats[book.category] || 0) + 1
+    Object.entries(stats.value?.categories ?? {}).forEach(([category, categoryStats]) => {
+      counts[category] = categoryStats.count
     })
     
-    return stats
+    return counts
   })
 
+  /**
+   * Nombre de livres par catégorie pour la recherche courante
+   */
+  const categoryFacets = computed(() => facets.value?.categories ?? {})
+
   // ============ ACTIONS ============
 
   /**
-   * Récupérer tous les livres
+   * Paramètres de filtre transmis à l'API
+   */
+  function filterParams() {
+    return {
+      size: PAGE_SIZE,
+      sort: 'title',
+      q: searchQuery.value || undefined,
+      category: selectedCategory.value || undefined
+    }
+  }
+
+  /**
+   * Récupérer la première page du catalogue filtré
    */
   async function fetchBooks() {
     loading.value = true
     error.value = null
     
     try {
-      const response = await api.get<Book[]>('/books')
-      books.value = response.data
+      const response = await api.get<CursorPage<Book>>('/books', {
+        params: filterParams()
+      })
+      books.value = response.data.content
+      nextCursor.value = response.data.nextCursor
+      hasMore.value = response.data.hasNext
     } catch (err: any) {
       error.value = 'Erreur lors du chargement des livres'
       console.error('Erreur fetchBooks:', err)
@@ -100,6 +131,65 @@ export const useBookStore = defineStore('books', () => {
     }
   }
 
+  /**
+   * Charger la page suivante du catalogue
+   */
+  async function fetchMoreBooks() {
+    if (!hasMore.value || !nextCursor.value) return
+    error.value = null
+    
+    try {
+      const response = await api.get<CursorPage<Book>>('/books', {
+        params: { ...filterParams(), cursor: nextCursor.value }
+      })
+      books.value.push(...response.data.content)
+      nextCursor.value = response.data.nextCursor
+      hasMore.value = response.data.hasNext
+    } catch (err: any) {
+      error.value = 'Erreur lors du chargement des livres'
+      console.error('Erreur fetchMoreBooks:', err)
+    }
+  }
+
+  /**
+   * Récupérer les statistiques du catalogue
+   */
+  async function fetchStats() {
+    try {
+      const response = await api.get<CatalogStats>('/books/stats')
+      stats.value = response.data
+    } catch (err: any) {
+      console.error('Erreur fetchStats:', err)
+    }
+  }
+
+  /**
+   * Récupérer les comptes par facette pour les filtres courants
+   */
+  async function fetchFacets() {
+    try {
+      const response = await api.get<FacetCounts>('/books/facets', {
+        params: {
+          q: searchQuery.value || undefined,
+          category: selectedCategory.value || undefined
+        }
+      })
+      facets.value = response.data
+    } catch (err: any) {
+      console.error('Erreur fetchFacets:', err)
+    }
+  }
+
+  /**
+   * Rafraîchir les comptes après une modification du catalogue
+   */
+  function refreshCounts() {
+    fetchStats()
+    if (facets.value) {
+      fetchFacets()
+    }
+  }
+
   /**
    * Récupérer un livre par son ID
    */
@@ -130,6 +220,7 @@ export const useBookStore = defineStore('books', () => {
     try {
       const response = await api.post<Book>('/books', book)
       books.value.push(response.data)
+      refreshCounts()
       return response.data
     } catch (err: any) {
       error.value = err.response?.data?.message || 'Erreur lors de la création'
@@ -147,7 +238,15 @@ export const useBookStore = defineStore('books', () => {
     error.value = null
     
     try {
-      const response = await api.put<Book>(`/books/${id}`, book)
+      // Transmettre la version chargée pour détecter une modification concurrente
+      const base = currentBook.value?.id === id ? currentBook.value : null
+      const version = book.version ?? base?.version
+      // Livre chargé : n'envoyer que les champs modifiés (JSON Merge Patch)
+      const response = base && version !== undefined
+        ? await api.patch<Book>(`/books/${id}`, { ...changedFields(base, book), version }, {
+            headers: { 'Content-Type': 'application/merge-patch+json' }
+          })
+        : await api.put<Book>(`/books/${id}`, { ...book, version })
       
       // Mettre à jour dans la liste locale
       const index = books.value.findIndex(b => b.id === id)
@@ -160,6 +259,7 @@ export const useBookStore = defineStore('books', () => {
         currentBook.value = response.data
       }
       
+      refreshCounts()
       return response.data
     } catch (err: any) {
       error.value = err.response?.data?.message || 'Erreur lors de la mise à jour'
@@ -187,6 +287,7 @@ export const useBookStore = defineStore('books', () => {
         currentBook.value = null
       }
       
+      refreshCounts()
       return true
     } catch (err: any) {
       error.value = 'Erreur lors de la suppression'
@@ -197,25 +298,31 @@ export const useBookStore = defineStore('books', () => {
   }
 
   /**
-   * Définir la recherche
+   * Définir la recherche et recharger le catalogue
    */
   function setSearchQuery(query: string) {
     searchQuery.value = query
+    fetchFacets()
+    return fetchBooks()
   }
 
   /**
-   * Définir la catégorie filtrée
+   * Définir la catégorie filtrée et recharger le catalogue
    */
   function setCategory(category: BookCategory | null) {
     selectedCategory.value = category
+    fetchFacets()
+    return fetchBooks()
   }
 
   /**
-   * Réinitialiser les filtres
+   * Réinitialiser les filtres et recharger le catalogue
    */
   function clearFilters() {
     searchQuery.value = ''
     selectedCategory.value = null
+    fetchFacets()
+    return fetchBooks()
   }
 
   /**
@@ -231,6 +338,9 @@ export const useBookStore = defineStore('books', () => {
     currentBook,
     loading,
     error,
+    hasMore,
+    stats,
+    facets,
     searchQuery,
     selectedCategory,
     // Getters
@@ -239,8 +349,12 @@ export const useBookStore = defineStore('books', () => {
     filteredCount,
     booksByCategory,
     categoryStats,
+    categoryFacets,
     // Actions
     fetchBooks,
+    fetchMoreBooks,
+    fetchStats,
+    fetchFacets,
     fetchBook,
     createBook,
     updateBook,
@@ -8,6 +8,37 @@ export interface Book {
   coverUrl?: string
   publicationYear?: number
   category: BookCategory
+  version?: number
+}
+
+export interface CursorPage<T> {
+  content: T[]
+  nextCursor: string | null
+  hasNext: boolean
+}
+
+export interface CategoryStats {
+  count: number
+  minPrice: number | null
+  maxPrice: number | null
+  averagePrice: number | null
+  publicationDecades: Record<number, number>
+  unknownPublicationYear: number
+}
+
+export interface CatalogStats {
+  total: CategoryStats
+  categories: Partial<Record<BookCategory, CategoryStats>>
+}
+
+/**
+ * Comptes par valeur de facette ; ceux d'une facette ignorent le filtre de cette facette
+ */
+export interface FacetCounts {
+  total: number
+  categories: Partial<Record<BookCategory, number>>
+  decades: Record<number, number>
+  prices: Record<string, number>
 }
 
 export enum BookCategory {
@@ -45,6 +76,7 @@ export interface RegisterCredentials {
 
 export interface AuthResponse {
   token: string
+  refreshToken: string
   username: string
   role: string
 }